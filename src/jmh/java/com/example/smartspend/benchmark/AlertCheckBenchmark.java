@@ -0,0 +1,81 @@
+package com.example.smartspend.benchmark;
+
+import java.time.LocalDate;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import com.example.smartspend.entity.Category;
+import com.example.smartspend.entity.Expense;
+import com.example.smartspend.entity.Money;
+import com.example.smartspend.entity.TransactionType;
+import com.example.smartspend.repository.ExpenseRepository;
+import com.example.smartspend.service.BudgetService;
+import com.example.smartspend.service.ExpenseRollupService;
+
+/**
+ * Per-insert budget alert check cost as a user's history grows. With the date-range
+ * predicate and the (user_id, category, date) index both the alert check and the raw
+ * month total should stay flat across {@code rows}.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class AlertCheckBenchmark {
+
+    private static final LocalDate TODAY = LocalDate.of(2025, 6, 15);
+
+    @Param({"1000", "10000", "100000"})
+    public int rows;
+
+    private BenchmarkContext context;
+    private BudgetService budgetService;
+    private ExpenseRepository expenseRepository;
+    private long userId;
+    private Expense expense;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        context = BenchmarkContext.start("alerts" + rows);
+        userId = context.createUser("alerts@example.com");
+        context.seedExpenses(userId, rows, 36, TODAY, 42L);
+        // Budget high enough that the check never crosses a threshold and sends mail
+        context.createBudget(userId, Category.FOOD, Money.of(1_000_000_000), TODAY.getMonthValue(), TODAY.getYear());
+        context.bean(ExpenseRollupService.class).rebuild(userId);
+
+        budgetService = context.bean(BudgetService.class);
+        expenseRepository = context.bean(ExpenseRepository.class);
+        expense = new Expense("Groceries", Money.of(25), Category.FOOD, TransactionType.EXPENSE, TODAY, null);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        context.close();
+    }
+
+    @Benchmark
+    public void checkBudgetAlerts() {
+        budgetService.checkBudgetAlerts(userId, expense);
+    }
+
+    @Benchmark
+    public Long monthTotalQuery() {
+        return expenseRepository.getTotalExpenseByCategoryAndMonth(
+                userId, Category.FOOD, TODAY.getYear(), TODAY.getMonthValue());
+    }
+}
@@ -0,0 +1,130 @@
+package com.example.smartspend.benchmark;
+
+import java.sql.Date;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import com.example.smartspend.SmartspendApplication;
+import com.example.smartspend.entity.Category;
+import com.example.smartspend.entity.Money;
+import com.example.smartspend.entity.TransactionType;
+
+/**
+ * Boots the application against a private in-memory H2 database and seeds synthetic data.
+ * Each benchmark trial gets its own database so data sizes do not leak between trials.
+ */
+public final class BenchmarkContext implements AutoCloseable {
+
+    private static final Category[] CATEGORIES = Category.values();
+
+    private final ConfigurableApplicationContext context;
+    private final JdbcTemplate jdbcTemplate;
+
+    private BenchmarkContext(ConfigurableApplicationContext context) {
+        this.context = context;
+        this.jdbcTemplate = context.getBean(JdbcTemplate.class);
+    }
+
+    public static BenchmarkContext start(String databaseName) {
+        return start(databaseName, WebApplicationType.NONE);
+    }
+
+    /**
+     * Boots with the given web type; {@code extraArgs} are appended after the defaults so they
+     * win. A SERVLET context listens on {@link #port()}.
+     */
+    public static BenchmarkContext start(String databaseName, WebApplicationType webType, String... extraArgs) {
+        // OPTIMIZE_REUSE_RESULTS=FALSE: H2 would otherwise return the previous result of a repeated
+        // query on an unchanged table, which no real database does, and scans would measure nothing
+        List<String> args = new ArrayList<>(List.of(
+                "--spring.datasource.url=jdbc:h2:mem:" + databaseName + ";DB_CLOSE_DELAY=-1;MODE=PostgreSQL;OPTIMIZE_REUSE_RESULTS=FALSE",
+                "--spring.datasource.driver-class-name=org.h2.Driver",
+                "--spring.datasource.username=sa",
+                "--spring.datasource.password=",
+                "--spring.jpa.database-platform=org.hibernate.dialect.H2Dialect",
+                "--spring.jpa.hibernate.ddl-auto=create-drop",
+                "--spring.jpa.show-sql=false",
+                "--spring.main.banner-mode=off",
+                "--logging.level.root=WARN",
+                "--logging.level.com.example.smartspend=WARN",
+                "--logging.level.org.springframework.security=WARN",
+                "--logging.level.org.hibernate.SQL=WARN"));
+        args.addAll(List.of(extraArgs));
+
+        ConfigurableApplicationContext context = new SpringApplicationBuilder(SmartspendApplication.class)
+                .web(webType)
+                // Passed as arguments so they take precedence over application.properties
+                .run(args.toArray(String[]::new));
+        return new BenchmarkContext(context);
+    }
+
+    public int port() {
+        return context.getEnvironment().getRequiredProperty("local.server.port", Integer.class);
+    }
+
+    public <T> T bean(Class<T> type) {
+        return context.getBean(type);
+    }
+
+    public JdbcTemplate jdbc() {
+        return jdbcTemplate;
+    }
+
+    public long createUser(String email) {
+        jdbcTemplate.update("INSERT INTO users (email, password, first_name, last_name, role, enabled) "
+                + "VALUES (?, 'bench-password', 'Bench', 'User', 'ROLE_USER', TRUE)", email);
+        return jdbcTemplate.queryForObject("SELECT id FROM users WHERE email = ?", Long.class, email);
+    }
+
+    public void createBudget(long userId, Category category, Money amount, int month, int year) {
+        jdbcTemplate.update("INSERT INTO budgets (user_id, category_code, amount_minor, month_value, year_value) "
+                + "VALUES (?, ?, ?, ?, ?)", userId, category.code(), amount.minorUnits(), month, year);
+    }
+
+    /**
+     * Inserts {@code rows} expenses for the user spread uniformly over the {@code months}
+     * months ending at {@code lastDay}, across all categories, with roughly 10% income.
+     */
+    public void seedExpenses(long userId, int rows, int months, LocalDate lastDay, long seed) {
+        Random random = new Random(seed);
+        LocalDate firstDay = lastDay.minusMonths(months - 1L).withDayOfMonth(1);
+        int span = (int) (lastDay.toEpochDay() - firstDay.toEpochDay()) + 1;
+
+        List<Object[]> batch = new ArrayList<>(1000);
+        for (int i = 0; i < rows; i++) {
+            boolean income = random.nextInt(10) == 0;
+            batch.add(new Object[] {
+                    userId,
+                    income ? "Salary" : "Expense " + i,
+                    100 + random.nextInt(19_901),
+                    CATEGORIES[random.nextInt(CATEGORIES.length)].code(),
+                    (income ? TransactionType.INCOME : TransactionType.EXPENSE).code(),
+                    Date.valueOf(firstDay.plusDays(random.nextInt(span)))
+            });
+            if (batch.size() == 1000) {
+                insertExpenses(batch);
+                batch.clear();
+            }
+        }
+        if (!batch.isEmpty()) {
+            insertExpenses(batch);
+        }
+    }
+
+    private void insertExpenses(List<Object[]> batch) {
+        jdbcTemplate.batchUpdate("INSERT INTO expenses (id, user_id, title, amount_minor, category_code, type_code, date) "
+                + "VALUES (NEXT VALUE FOR expenses_seq, ?, ?, ?, ?, ?, ?)", batch);
+    }
+
+    @Override
+    public void close() {
+        context.close();
+    }
+}
@@ -0,0 +1,78 @@
+package com.example.smartspend.benchmark;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import com.example.smartspend.entity.Category;
+import com.example.smartspend.entity.Money;
+import com.example.smartspend.service.EmailRenderer;
+import com.example.smartspend.service.EmailService;
+
+/**
+ * Render cost per email template. {@code cached=false} re-reads and re-parses the template
+ * on every call, which is what the shared engine does with spring.thymeleaf.cache=false.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class EmailRenderBenchmark {
+
+    @Param({"true", "false"})
+    public boolean cached;
+
+    private EmailRenderer renderer;
+    private List<EmailService.BudgetStatus> budgetStatus;
+    private List<EmailService.CategorySpending> topCategories;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        renderer = new EmailRenderer(cached);
+        renderer.warmUp();
+        budgetStatus = List.of(
+                new EmailService.BudgetStatus(Category.FOOD, Money.of(400.0), Money.of(452.75), 113.19),
+                new EmailService.BudgetStatus(Category.TRANSPORTATION, Money.of(150.0), Money.of(98.4), 65.6),
+                new EmailService.BudgetStatus(Category.ENTERTAINMENT, Money.of(100.0), Money.of(35.0), 35.0));
+        topCategories = List.of(
+                new EmailService.CategorySpending("FOOD", Money.of(452.75), 38.2),
+                new EmailService.CategorySpending("HOUSING", Money.of(400.0), 33.7),
+                new EmailService.CategorySpending("TRANSPORTATION", Money.of(98.4), 8.3),
+                new EmailService.CategorySpending("UTILITIES", Money.of(90.0), 7.6),
+                new EmailService.CategorySpending("ENTERTAINMENT", Money.of(35.0), 3.0));
+    }
+
+    @Benchmark
+    public String verification() {
+        return renderer.renderVerification("http://localhost:8082/api/auth/verify?token=3f2b9c6e-0d4a-4c1b-9a57-2e8f1c3d7b10");
+    }
+
+    @Benchmark
+    public String budgetWarning() {
+        return renderer.renderBudgetWarning(Category.FOOD, Money.of(400), 84.3);
+    }
+
+    @Benchmark
+    public String budgetExceeded() {
+        return renderer.renderBudgetExceeded(Category.FOOD, Money.of(400), 113.19);
+    }
+
+    @Benchmark
+    public String monthlySummary() {
+        return renderer.renderMonthlySummary(6, 2025, Money.of(4200), Money.of(1185.3), budgetStatus, topCategories);
+    }
+}
@@ -0,0 +1,109 @@
+package com.example.smartspend.benchmark;
+
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.LocalDate;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.boot.WebApplicationType;
+
+import com.example.smartspend.entity.Category;
+import com.example.smartspend.security.JwtUtil;
+import com.example.smartspend.service.ExpenseRollupService;
+
+/**
+ * Closed-loop HTTP load against a real Tomcat: 64 clients POSTing /expenses or querying
+ * /expenses/filter, with request handling on platform threads or on virtual threads. SampleTime
+ * reports the latency distribution (p99); throughput is clients / mean latency.
+ * Virtual threads need a Java 21 fork, e.g. -Djmh.args="ExpenseApiLoad -jvm /path/to/jdk-21/bin/java";
+ * on older runtimes both settings run on platform threads.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.SampleTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 2, time = 5)
+@Measurement(iterations = 3, time = 10)
+@Threads(64)
+@Fork(1)
+public class ExpenseApiLoadBenchmark {
+
+    private static final LocalDate TODAY = LocalDate.of(2025, 6, 15);
+    private static final Category[] CATEGORIES = Category.values();
+
+    @Param({"false", "true"})
+    public boolean virtualThreads;
+
+    private BenchmarkContext context;
+    private HttpClient client;
+    private String baseUrl;
+    private String authorization;
+    private long userId;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        context = BenchmarkContext.start("load" + virtualThreads, WebApplicationType.SERVLET,
+                "--server.port=0",
+                "--spring.threads.virtual.enabled=" + virtualThreads);
+        // POST /expenses still books everything to user 1, the first user of the fresh database
+        userId = context.createUser("load@example.com");
+        context.seedExpenses(userId, 20_000, 12, TODAY, 11L);
+        // Rollup rows exist up front; concurrent first inserts of a key are left to client retries
+        context.bean(ExpenseRollupService.class).rebuild(userId);
+
+        baseUrl = "http://localhost:" + context.port();
+        authorization = "Bearer " + context.bean(JwtUtil.class).generateToken("load@example.com");
+        client = HttpClient.newBuilder().version(HttpClient.Version.HTTP_1_1).build();
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        context.close();
+    }
+
+    @Benchmark
+    public int postExpense() throws IOException, InterruptedException {
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        // Spread over categories and the seeded months so requests don't all update one rollup row
+        String body = "{\"title\":\"Load test\",\"amount\":" + (1 + random.nextInt(200))
+                + ",\"category\":\"" + CATEGORIES[random.nextInt(CATEGORIES.length)]
+                + "\",\"type\":\"EXPENSE\",\"date\":\"" + TODAY.minusDays(random.nextInt(300)) + "\"}";
+        return send(HttpRequest.newBuilder(URI.create(baseUrl + "/expenses"))
+                .header("Content-Type", "application/json")
+                .POST(HttpRequest.BodyPublishers.ofString(body)), 201);
+    }
+
+    @Benchmark
+    public int filterExpenses() throws IOException, InterruptedException {
+        Category category = CATEGORIES[ThreadLocalRandom.current().nextInt(CATEGORIES.length)];
+        return send(HttpRequest.newBuilder(URI.create(baseUrl + "/expenses/filter?userId=" + userId
+                + "&category=" + category + "&startDate=" + TODAY.minusMonths(1) + "&endDate=" + TODAY)).GET(), 200);
+    }
+
+    private int send(HttpRequest.Builder request, int expectedStatus) throws IOException, InterruptedException {
+        HttpResponse<byte[]> response = client.send(request.header("Authorization", authorization).build(),
+                HttpResponse.BodyHandlers.ofByteArray());
+        if (response.statusCode() != expectedStatus) {
+            throw new IllegalStateException("Unexpected status " + response.statusCode() + ": "
+                    + new String(response.body()));
+        }
+        return response.body().length;
+    }
+}
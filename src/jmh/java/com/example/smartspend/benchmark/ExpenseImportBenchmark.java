@@ -0,0 +1,84 @@
+package com.example.smartspend.benchmark;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import com.example.smartspend.dto.ExpenseImportResult;
+import com.example.smartspend.entity.Category;
+import com.example.smartspend.service.ExpenseImportService;
+
+/**
+ * Wall time of one CSV import of {@code rows} bank-export rows into a fresh user,
+ * including validation, batched inserts and the end-of-import rollup pass.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.SingleShotTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 2)
+@Measurement(iterations = 5)
+@Fork(1)
+public class ExpenseImportBenchmark {
+
+    @Param({"1000", "50000"})
+    public int rows;
+
+    private BenchmarkContext context;
+    private ExpenseImportService importService;
+    private byte[] csv;
+    private long userId;
+    private int run;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        context = BenchmarkContext.start("import" + rows);
+        importService = context.bean(ExpenseImportService.class);
+
+        Category[] categories = Category.values();
+        Random random = new Random(3L);
+        LocalDate start = LocalDate.of(2024, 1, 1);
+        StringBuilder builder = new StringBuilder("date,title,amount,category,type,description\n");
+        for (int i = 0; i < rows; i++) {
+            boolean income = random.nextInt(10) == 0;
+            builder.append(start.plusDays(random.nextInt(540))).append(',')
+                    .append(income ? "Salary" : "\"Card payment, ref " + i + "\"").append(',')
+                    .append(Math.round((1 + random.nextDouble() * 199) * 100) / 100.0).append(',')
+                    .append(categories[random.nextInt(categories.length)]).append(',')
+                    .append(income ? "INCOME" : "EXPENSE").append(',')
+                    .append('\n');
+        }
+        csv = builder.toString().getBytes(StandardCharsets.UTF_8);
+    }
+
+    @Setup(Level.Iteration)
+    public void newUser() {
+        userId = context.createUser("import" + (run++) + "@example.com");
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        context.close();
+    }
+
+    @Benchmark
+    public ExpenseImportResult importCsv() throws IOException {
+        return importService.importCsv(userId, new ByteArrayInputStream(csv));
+    }
+}
@@ -0,0 +1,69 @@
+package com.example.smartspend.benchmark;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+import com.example.smartspend.entity.Category;
+import com.example.smartspend.entity.Expense;
+import com.example.smartspend.entity.Money;
+import com.example.smartspend.entity.TransactionType;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+/**
+ * JSON serialization of expense lists as returned by the list endpoints, using an
+ * ObjectMapper configured the way Spring MVC configures its own.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ExpenseJsonBenchmark {
+
+    @Param({"10", "100", "1000"})
+    public int size;
+
+    private ObjectMapper objectMapper;
+    private List<Expense> expenses;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        objectMapper = Jackson2ObjectMapperBuilder.json().build();
+        Category[] categories = Category.values();
+        Random random = new Random(11L);
+        LocalDate start = LocalDate.of(2025, 1, 1);
+
+        expenses = new ArrayList<>(size);
+        for (int i = 0; i < size; i++) {
+            Expense expense = new Expense("Expense " + i, Money.ofMinor(Math.round(random.nextDouble() * 20000)),
+                    categories[random.nextInt(categories.length)], TransactionType.EXPENSE,
+                    start.plusDays(random.nextInt(180)), i % 3 == 0 ? "Paid by card" : null);
+            expense.setId((long) i + 1);
+            expenses.add(expense);
+        }
+    }
+
+    @Benchmark
+    public byte[] serializeList() throws JsonProcessingException {
+        return objectMapper.writeValueAsBytes(expenses);
+    }
+}
@@ -0,0 +1,121 @@
+package com.example.smartspend.benchmark;
+
+import java.io.FileNotFoundException;
+import java.io.FileOutputStream;
+import java.io.PrintStream;
+import java.time.LocalDate;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import com.example.smartspend.entity.Category;
+import com.example.smartspend.entity.Expense;
+import com.example.smartspend.entity.Money;
+import com.example.smartspend.entity.TransactionType;
+import com.example.smartspend.service.BudgetService;
+import com.example.smartspend.service.ExpenseService;
+
+/**
+ * Throughput of concurrent expense creation (the work behind POST /expenses) when every
+ * request also logs an alert-sized message: {@code stdout} is the former eight-line
+ * System.out block, {@code async} the single structured event BudgetService now emits
+ * through the async JSON appender, {@code none} the floor. Output goes to a temp file
+ * rather than the JMH console; each thread writes for its own user so rows don't contend.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 3)
+@Measurement(iterations = 5, time = 3)
+@Threads(8)
+@Fork(1)
+public class ExpenseLoggingBenchmark {
+
+    private static final Logger log = LoggerFactory.getLogger(BudgetService.class);
+    private static final LocalDate TODAY = LocalDate.of(2025, 6, 15);
+
+    @Param({"none", "stdout", "async"})
+    public String logging;
+
+    private BenchmarkContext context;
+    private ExpenseService expenseService;
+    private PrintStream originalOut;
+    private final AtomicInteger users = new AtomicInteger();
+
+    @State(Scope.Thread)
+    public static class UserState {
+        long userId;
+
+        @Setup(Level.Trial)
+        public void setUp(ExpenseLoggingBenchmark benchmark) {
+            userId = benchmark.context.createUser("logging" + benchmark.users.incrementAndGet() + "@example.com");
+        }
+    }
+
+    @Setup(Level.Trial)
+    public void setUp() throws FileNotFoundException {
+        originalOut = System.out;
+        context = BenchmarkContext.start("logging" + logging);
+        expenseService = context.bean(ExpenseService.class);
+        // Autoflushing like a console; the async appender writes through System.out as well
+        System.setOut(new PrintStream(new FileOutputStream("target/logging-benchmark-" + logging + ".log"), true));
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        context.close();
+        System.out.close();
+        System.setOut(originalOut);
+    }
+
+    @Benchmark
+    public Expense createExpense(UserState user) {
+        Expense expense = expenseService.createExpense(user.userId,
+                new Expense("Groceries", Money.of(25), Category.FOOD, TransactionType.EXPENSE, TODAY, null));
+        logAlert(user.userId, expense.getCategory());
+        return expense;
+    }
+
+    // The logging alone, where the difference isn't buried under the insert
+    @Benchmark
+    public void logOnly(UserState user) {
+        logAlert(user.userId, Category.FOOD);
+    }
+
+    private void logAlert(long userId, Category category) {
+        double utilization = 87.5;
+        if ("stdout".equals(logging)) {
+            System.out.println("=== BUDGET WARNING ALERT ===");
+            System.out.println("User: user" + userId + "@example.com");
+            System.out.println("Category: " + category);
+            System.out.println("Budget: $" + 500.0);
+            System.out.println("Spent: $" + 437.5);
+            System.out.println("Utilization: " + String.format("%.1f", utilization) + "%");
+            System.out.println("============================");
+        } else if ("async".equals(logging)) {
+            log.atWarn()
+                    .addKeyValue("alert", "warning")
+                    .addKeyValue("category", category)
+                    .addKeyValue("budget", 500.0)
+                    .addKeyValue("spent", 437.5)
+                    .addKeyValue("utilization", utilization)
+                    .log("Budget {} threshold reached", "warning");
+        }
+    }
+}
@@ -0,0 +1,93 @@
+package com.example.smartspend.benchmark;
+
+import java.time.LocalDate;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import com.example.smartspend.dto.ExpenseTotals;
+import com.example.smartspend.entity.Category;
+import com.example.smartspend.entity.Expense;
+import com.example.smartspend.entity.Money;
+import com.example.smartspend.service.ExpenseService;
+
+/**
+ * Read paths behind the dashboard and totals endpoints, for one user whose history
+ * spans three years at {@code rows} transactions.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class ExpenseQueryBenchmark {
+
+    private static final LocalDate TODAY = LocalDate.of(2025, 6, 15);
+    private static final LocalDate MONTH_START = TODAY.withDayOfMonth(1);
+    private static final LocalDate HISTORY_START = TODAY.minusMonths(35).withDayOfMonth(1);
+
+    @Param({"1000", "10000", "100000"})
+    public int rows;
+
+    private BenchmarkContext context;
+    private ExpenseService expenseService;
+    private long userId;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        context = BenchmarkContext.start("queries" + rows);
+        userId = context.createUser("queries@example.com");
+        context.seedExpenses(userId, rows, 36, TODAY, 7L);
+        expenseService = context.bean(ExpenseService.class);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        context.close();
+    }
+
+    @Benchmark
+    public Money totalExpensesAllTime() {
+        return expenseService.getTotalExpenses(userId, null, null);
+    }
+
+    @Benchmark
+    public Money totalExpensesCurrentMonth() {
+        return expenseService.getTotalExpenses(userId, MONTH_START, TODAY);
+    }
+
+    @Benchmark
+    public ExpenseTotals periodTotalsCurrentMonth() {
+        return expenseService.getPeriodTotals(userId, MONTH_START, TODAY);
+    }
+
+    // Whole-history scans: every row's type and category is read and compared
+    @Benchmark
+    public ExpenseTotals periodTotalsHistory() {
+        return expenseService.getPeriodTotals(userId, HISTORY_START, TODAY);
+    }
+
+    @Benchmark
+    public Money categoryTotalHistory() {
+        return expenseService.getTotalAmountByCategoryAndPeriod(userId, Category.FOOD, HISTORY_START, TODAY);
+    }
+
+    @Benchmark
+    public List<Expense> recentExpenses() {
+        return expenseService.getRecentExpenses(userId, 10);
+    }
+}
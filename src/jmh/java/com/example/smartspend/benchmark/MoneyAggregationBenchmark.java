@@ -0,0 +1,99 @@
+package com.example.smartspend.benchmark;
+
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import com.example.smartspend.entity.Category;
+import com.example.smartspend.entity.Money;
+
+/**
+ * In-memory aggregation over amounts held as Double (the old representation) versus Money
+ * minor units, on the same random cent values:
+ * - total: one running sum, as in ExpenseTotals and ExpenseDashboard
+ * - byCategory: per-category sums, as in MonthlySummaryService (EnumMap of boxed Doubles
+ *   against a long[] indexed by ordinal)
+ *
+ * Run with -prof gc to see the allocation difference.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class MoneyAggregationBenchmark {
+
+    private static final Category[] CATEGORIES = Category.values();
+
+    @Param({"100", "10000"})
+    public int size;
+
+    private Double[] doubleAmounts;
+    private Money[] moneyAmounts;
+    private Category[] categories;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        Random random = new Random(7L);
+        doubleAmounts = new Double[size];
+        moneyAmounts = new Money[size];
+        categories = new Category[size];
+        for (int i = 0; i < size; i++) {
+            long cents = 1 + random.nextInt(20_000);
+            doubleAmounts[i] = cents / 100.0;
+            moneyAmounts[i] = Money.ofMinor(cents);
+            categories[i] = CATEGORIES[random.nextInt(CATEGORIES.length)];
+        }
+    }
+
+    @Benchmark
+    public double totalDouble() {
+        double total = 0;
+        for (Double amount : doubleAmounts) {
+            total += amount;
+        }
+        return total;
+    }
+
+    @Benchmark
+    public long totalMinorUnits() {
+        long total = 0;
+        for (Money amount : moneyAmounts) {
+            total += amount.minorUnits();
+        }
+        return total;
+    }
+
+    @Benchmark
+    public Map<Category, Double> byCategoryDouble() {
+        Map<Category, Double> totals = new EnumMap<>(Category.class);
+        for (int i = 0; i < size; i++) {
+            totals.merge(categories[i], doubleAmounts[i], Double::sum);
+        }
+        return totals;
+    }
+
+    @Benchmark
+    public long[] byCategoryMinorUnits() {
+        long[] totals = new long[CATEGORIES.length];
+        for (int i = 0; i < size; i++) {
+            totals[categories[i].ordinal()] += moneyAmounts[i].minorUnits();
+        }
+        return totals;
+    }
+}
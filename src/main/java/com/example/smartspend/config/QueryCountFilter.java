@@ -0,0 +1,87 @@
+package com.example.smartspend.config;
+
+import java.io.IOException;
+import java.util.concurrent.TimeUnit;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.lang.NonNull;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+import org.springframework.web.servlet.HandlerMapping;
+
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+
+/**
+ * Records how many SQL statements each request issued and how long they took to execute,
+ * per route (smartspend.http.db.statements / smartspend.http.db.time). Requests above
+ * app.query-count.warn-threshold are logged and counted in smartspend.http.db.flagged,
+ * which is usually an N+1 over a lazy association. Wraps the security filters too, so the
+ * principal lookup is included.
+ */
+@Component
+@Order(Ordered.HIGHEST_PRECEDENCE + 10)
+public class QueryCountFilter extends OncePerRequestFilter {
+    
+    private static final Logger log = LoggerFactory.getLogger(QueryCountFilter.class);
+    
+    @Autowired
+    private ObjectProvider<MeterRegistry> meterRegistry;
+    
+    @Value("${app.query-count.warn-threshold:20}")
+    private int warnThreshold;
+    
+    @Override
+    protected void doFilterInternal(
+            @NonNull HttpServletRequest request,
+            @NonNull HttpServletResponse response,
+            @NonNull FilterChain filterChain
+    ) throws ServletException, IOException {
+        QueryCounter.begin();
+        try {
+            filterChain.doFilter(request, response);
+        } finally {
+            QueryCounter.Snapshot queries = QueryCounter.end();
+            // Route template rather than the raw path keeps the tag cardinality bounded
+            Object pattern = request.getAttribute(HandlerMapping.BEST_MATCHING_PATTERN_ATTRIBUTE);
+            String uri = pattern != null ? pattern.toString() : "UNKNOWN";
+            boolean flagged = queries.statements() > warnThreshold;
+            
+            if (flagged) {
+                log.atWarn()
+                        .addKeyValue("method", request.getMethod())
+                        .addKeyValue("uri", uri)
+                        .addKeyValue("statements", queries.statements())
+                        .addKeyValue("sqlMillis", Math.round(queries.executionMillis() * 10) / 10.0)
+                        .log("Request issued more SQL statements than the threshold of {}", warnThreshold);
+            }
+            
+            meterRegistry.ifAvailable(registry -> {
+                DistributionSummary.builder("smartspend.http.db.statements")
+                        .description("SQL statements prepared per request")
+                        .tags("method", request.getMethod(), "uri", uri)
+                        .register(registry)
+                        .record(queries.statements());
+                Timer.builder("smartspend.http.db.time")
+                        .description("Time spent executing SQL per request")
+                        .tags("method", request.getMethod(), "uri", uri)
+                        .register(registry)
+                        .record(queries.executionNanos(), TimeUnit.NANOSECONDS);
+                if (flagged) {
+                    registry.counter("smartspend.http.db.flagged", "method", request.getMethod(), "uri", uri).increment();
+                }
+            });
+        }
+    }
+}
@@ -0,0 +1,79 @@
+package com.example.smartspend.config;
+
+/**
+ * Thread-bound tally of the SQL a unit of work issued: statements prepared (fed by
+ * QueryCountInspector) and time spent executing them (fed by QueryTimingListener).
+ * Scopes nest, so a test can wrap a MockMvc call that QueryCountFilter also tracks and
+ * still see the whole request; nothing is recorded on threads with no open scope.
+ */
+public final class QueryCounter {
+    
+    private static final ThreadLocal<Tally> CURRENT = new ThreadLocal<>();
+    
+    private QueryCounter() {
+    }
+    
+    public static void begin() {
+        Tally tally = CURRENT.get();
+        if (tally == null) {
+            CURRENT.set(new Tally());
+        } else {
+            tally.depth++;
+        }
+    }
+    
+    // Closes the innermost scope; the snapshot covers everything since the outermost begin()
+    public static Snapshot end() {
+        Tally tally = CURRENT.get();
+        if (tally == null) {
+            return new Snapshot(0, 0);
+        }
+        if (tally.depth == 0) {
+            CURRENT.remove();
+        } else {
+            tally.depth--;
+        }
+        return new Snapshot(tally.statements, tally.executionNanos);
+    }
+    
+    public static Snapshot current() {
+        Tally tally = CURRENT.get();
+        return tally != null ? new Snapshot(tally.statements, tally.executionNanos) : new Snapshot(0, 0);
+    }
+    
+    static void statementPrepared() {
+        Tally tally = CURRENT.get();
+        if (tally != null) {
+            tally.statements++;
+        }
+    }
+    
+    static void executionStarted() {
+        Tally tally = CURRENT.get();
+        if (tally != null) {
+            tally.executionStart = System.nanoTime();
+        }
+    }
+    
+    static void executionEnded() {
+        Tally tally = CURRENT.get();
+        if (tally != null && tally.executionStart != 0) {
+            tally.executionNanos += System.nanoTime() - tally.executionStart;
+            tally.executionStart = 0;
+        }
+    }
+    
+    public record Snapshot(int statements, long executionNanos) {
+        
+        public double executionMillis() {
+            return executionNanos / 1_000_000.0;
+        }
+    }
+    
+    private static final class Tally {
+        int depth;
+        int statements;
+        long executionNanos;
+        long executionStart;
+    }
+}
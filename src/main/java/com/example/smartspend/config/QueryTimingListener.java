@@ -0,0 +1,30 @@
+package com.example.smartspend.config;
+
+import org.hibernate.BaseSessionEventListener;
+
+/**
+ * Adds JDBC execution time (single statements and batches) to the current QueryCounter
+ * scope. Hibernate creates one per session from spring.jpa.properties.hibernate.session.events.auto.
+ */
+public class QueryTimingListener extends BaseSessionEventListener {
+    
+    @Override
+    public void jdbcExecuteStatementStart() {
+        QueryCounter.executionStarted();
+    }
+    
+    @Override
+    public void jdbcExecuteStatementEnd() {
+        QueryCounter.executionEnded();
+    }
+    
+    @Override
+    public void jdbcExecuteBatchStart() {
+        QueryCounter.executionStarted();
+    }
+    
+    @Override
+    public void jdbcExecuteBatchEnd() {
+        QueryCounter.executionEnded();
+    }
+}
@@ -0,0 +1,289 @@
+package com.example.smartspend.config;
+
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.util.List;
+import java.util.function.Consumer;
+import java.util.stream.Collectors;
+
+import javax.sql.DataSource;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.SmartInitializingSingleton;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.SingleConnectionDataSource;
+import org.springframework.stereotype.Component;
+
+/**
+ * Versioned data migrations for changes ddl-auto=update can't make on its own. Each version
+ * runs once on PostgreSQL and is recorded in schema_migrations. Other databases (the H2
+ * tests and benchmarks) start from an empty create-drop schema, so there is nothing to migrate.
+ *
+ * Runs after Hibernate has added the new columns as nullable, and before the web server and
+ * schedulers start. Instances hold an advisory lock while migrating, so only one does the work.
+ * The migrations are online, so old-version instances keep working while they run:
+ * - a trigger keeps the legacy and new columns in sync, whichever version wrote the row
+ * - the backfill runs in short batches, each committed on its own
+ * - NOT NULL is enforced with a CHECK added NOT VALID and then validated, which scans
+ *   without blocking writes
+ * - DDL waits at most lock_timeout for its brief exclusive lock, so it can't queue every
+ *   query on the table behind a long transaction; a failed run retries on the next start
+ *
+ * The legacy columns and their sync triggers stay until a later release drops them, once no
+ * instance of the version that writes them is left.
+ */
+@Component
+public class SchemaMigrations implements SmartInitializingSingleton {
+
+    private static final Logger log = LoggerFactory.getLogger(SchemaMigrations.class);
+
+    // Shared by all instances; any constant unique within the database works
+    private static final long LOCK_KEY = 0x736d_6967_7261_7465L;
+
+    // The names the legacy columns held, in code order (position + 1 is the code). Frozen with
+    // migration 2; values added to the enums later never existed in those columns
+    static final List<String> V2_CATEGORY_NAMES = List.of(
+            "FOOD", "TRANSPORTATION", "ENTERTAINMENT", "SHOPPING", "HEALTHCARE", "BILLS", "EDUCATION",
+            "TRAVEL", "GROCERIES", "DINING", "UTILITIES", "RENT", "MORTGAGE", "INSURANCE", "SAVINGS",
+            "INVESTMENTS", "GIFTS", "CHARITY", "PERSONAL_CARE", "PETS", "CHILDCARE", "SUBSCRIPTIONS", "OTHER");
+    static final List<String> V2_TYPE_NAMES = List.of("EXPENSE", "INCOME");
+
+    @Autowired
+    private DataSource dataSource;
+
+    @Value("${app.migrations.batch-size:5000}")
+    private int batchSize;
+
+    @Value("${app.migrations.lock-timeout:5s}")
+    private String lockTimeout;
+
+    @Override
+    public void afterSingletonsInstantiated() {
+        try (Connection connection = dataSource.getConnection()) {
+            if (!"PostgreSQL".equals(connection.getMetaData().getDatabaseProductName())) {
+                return;
+            }
+            // One session throughout: the advisory lock and lock_timeout belong to it, and
+            // with autocommit every statement (each backfill batch) commits on its own
+            connection.setAutoCommit(true);
+            JdbcTemplate jdbc = new JdbcTemplate(new SingleConnectionDataSource(connection, true));
+            // Waits as long as another instance is migrating; lock_timeout would cut that wait
+            // short too, so it only applies to the DDL once the lock is held
+            jdbc.execute("SELECT pg_advisory_lock(" + LOCK_KEY + ")");
+            try {
+                jdbc.execute("SET lock_timeout = '" + lockTimeout + "'");
+                jdbc.execute("CREATE TABLE IF NOT EXISTS schema_migrations ("
+                        + "version INTEGER PRIMARY KEY, "
+                        + "description VARCHAR(255) NOT NULL, "
+                        + "applied_at TIMESTAMP NOT NULL DEFAULT now())");
+                migrate(jdbc, 1, "Amounts as BIGINT minor units", this::amountsToMinorUnits);
+                migrate(jdbc, 2, "Category and transaction type as SMALLINT codes", this::enumsToCodes);
+                migrate(jdbc, 3, "Rollup unique key on the code columns", this::rollupKeyOnCodes);
+                migrate(jdbc, 4, "Email outbox IN_PROGRESS status", this::outboxInProgressStatus);
+                migrate(jdbc, 5, "Expense id sequence ahead of existing ids", this::alignExpenseSequence);
+            } finally {
+                jdbc.execute("SELECT pg_advisory_unlock(" + LOCK_KEY + ")");
+                jdbc.execute("RESET lock_timeout");
+            }
+        } catch (SQLException e) {
+            throw new RuntimeException("Schema migration failed", e);
+        }
+    }
+
+    private void migrate(JdbcTemplate jdbc, int version, String description, Consumer<JdbcTemplate> migration) {
+        Integer applied = jdbc.queryForObject(
+                "SELECT COUNT(*) FROM schema_migrations WHERE version = ?", Integer.class, version);
+        if (applied != null && applied > 0) {
+            return;
+        }
+        log.info("Applying schema migration {}: {}", version, description);
+        migration.accept(jdbc);
+        jdbc.update("INSERT INTO schema_migrations (version, description) VALUES (?, ?)", version, description);
+        log.info("Applied schema migration {}", version);
+    }
+
+    // 1: double precision amount columns -> whole cents in the *_minor columns (see Money)
+    private void amountsToMinorUnits(JdbcTemplate jdbc) {
+        ColumnChange amount = new ColumnChange("amount", "amount_minor",
+                "ROUND(%s::numeric * 100)", "%s / 100.0");
+        migrateTable(jdbc, "expenses", 1, List.of(amount));
+        migrateTable(jdbc, "budgets", 1, List.of(amount));
+        migrateTable(jdbc, "monthly_category_rollups", 1, List.of(new ColumnChange("total_amount", "total_minor",
+                "ROUND(%s::numeric * 100)", "%s / 100.0")));
+    }
+
+    // 2: enum names in VARCHAR columns -> fixed SMALLINT codes (see Category.code())
+    private void enumsToCodes(JdbcTemplate jdbc) {
+        String categories = sqlArray(V2_CATEGORY_NAMES);
+        String types = sqlArray(V2_TYPE_NAMES);
+        ColumnChange category = new ColumnChange("category", "category_code",
+                "array_position(" + categories + ", %s)", "(" + categories + ")[%s]");
+        ColumnChange type = new ColumnChange("transaction_type", "type_code",
+                "array_position(" + types + ", %s)", "(" + types + ")[%s]");
+        migrateTable(jdbc, "expenses", 2, List.of(category, type));
+        migrateTable(jdbc, "budgets", 2, List.of(category));
+        migrateTable(jdbc, "monthly_category_rollups", 2, List.of(category, type));
+    }
+
+    // 3: the rollup key still covered the legacy columns, since ddl-auto keeps a constraint whose
+    // name exists. Old-version writes fill the codes through the trigger, so the new key covers
+    // them too, and the old key guaranteed no duplicates on the codes
+    private void rollupKeyOnCodes(JdbcTemplate jdbc) {
+        String table = "monthly_category_rollups";
+        String constraint = "uk_rollup_user_period_category_type";
+        String index = constraint + "_codes";
+        Integer onCodes = jdbc.queryForObject("SELECT COUNT(*) FROM pg_constraint WHERE conname = ? "
+                + "AND conrelid = ?::regclass AND pg_get_constraintdef(oid) LIKE '%category_code%'",
+                Integer.class, constraint, table);
+        if (onCodes != null && onCodes > 0) {
+            return;
+        }
+        // CONCURRENTLY builds without blocking writes; a build interrupted earlier leaves an
+        // invalid index behind, so start over
+        jdbc.execute("DROP INDEX IF EXISTS " + index);
+        jdbc.execute("CREATE UNIQUE INDEX CONCURRENTLY " + index + " ON " + table
+                + " (user_id, year_value, month_value, category_code, type_code)");
+        // One statement, so there is no moment without a key; the index takes the constraint name
+        jdbc.execute("ALTER TABLE " + table + " DROP CONSTRAINT IF EXISTS " + constraint
+                + ", ADD CONSTRAINT " + constraint + " UNIQUE USING INDEX " + index);
+    }
+
+    // 4: the dispatcher leases rows as IN_PROGRESS while sending; ddl-auto doesn't widen the
+    // enum CHECK it created with the table. Old-version dispatchers never pick those rows up
+    private void outboxInProgressStatus(JdbcTemplate jdbc) {
+        String constraint = "email_outbox_status_check";
+        Integer widened = jdbc.queryForObject("SELECT COUNT(*) FROM pg_constraint WHERE conname = ? "
+                + "AND conrelid = 'email_outbox'::regclass AND pg_get_constraintdef(oid) LIKE '%IN_PROGRESS%'",
+                Integer.class, constraint);
+        if (widened != null && widened > 0) {
+            return;
+        }
+        jdbc.execute("ALTER TABLE email_outbox DROP CONSTRAINT IF EXISTS " + constraint
+                + ", ADD CONSTRAINT " + constraint
+                + " CHECK (status IN ('PENDING', 'IN_PROGRESS', 'SENT', 'FAILED')) NOT VALID");
+        jdbc.execute("ALTER TABLE email_outbox VALIDATE CONSTRAINT " + constraint);
+    }
+
+    // 5: expense ids moved from an identity column to the pooled expenses_seq (allocation 50),
+    // which ddl-auto creates starting at 1. Under the lock no instance is allocating from it yet;
+    // the sequence only ever moves forward
+    private void alignExpenseSequence(JdbcTemplate jdbc) {
+        jdbc.queryForObject("SELECT setval('expenses_seq', GREATEST("
+                + "(SELECT COALESCE(MAX(id), 0) FROM expenses) + 50, "
+                + "(SELECT last_value FROM expenses_seq)))", Long.class);
+    }
+
+    private void migrateTable(JdbcTemplate jdbc, String table, int version, List<ColumnChange> changes) {
+        List<ColumnChange> legacy = changes.stream()
+                .filter(change -> columnExists(jdbc, table, change.legacy()))
+                .toList();
+        if (!legacy.isEmpty()) {
+            for (ColumnChange change : legacy) {
+                // The new version never writes the legacy column; the trigger fills it instead
+                jdbc.execute("ALTER TABLE " + table + " ALTER COLUMN " + change.legacy() + " DROP NOT NULL");
+            }
+            createSyncTrigger(jdbc, table, version, legacy);
+            backfill(jdbc, table, legacy);
+        }
+        for (ColumnChange change : changes) {
+            requireNotNull(jdbc, table, change.column());
+        }
+    }
+
+    // Whichever column a write changed wins; the other is derived from it
+    private void createSyncTrigger(JdbcTemplate jdbc, String table, int version, List<ColumnChange> changes) {
+        String function = table + "_sync_v" + version;
+        StringBuilder body = new StringBuilder();
+        for (ColumnChange change : changes) {
+            String legacy = "NEW." + change.legacy();
+            String column = "NEW." + change.column();
+            body.append("  IF TG_OP = 'INSERT' THEN\n")
+                    .append("    IF ").append(column).append(" IS NULL THEN ")
+                    .append(column).append(" := ").append(change.toColumn(legacy)).append(";\n")
+                    .append("    ELSIF ").append(legacy).append(" IS NULL THEN ")
+                    .append(legacy).append(" := ").append(change.toLegacy(column)).append(";\n")
+                    .append("    END IF;\n")
+                    .append("  ELSIF ").append(legacy).append(" IS DISTINCT FROM OLD.").append(change.legacy()).append(" THEN\n")
+                    .append("    ").append(column).append(" := ").append(change.toColumn(legacy)).append(";\n")
+                    .append("  ELSIF ").append(column).append(" IS DISTINCT FROM OLD.").append(change.column()).append(" THEN\n")
+                    .append("    ").append(legacy).append(" := ").append(change.toLegacy(column)).append(";\n")
+                    .append("  END IF;\n");
+        }
+        jdbc.execute("CREATE OR REPLACE FUNCTION " + function + "() RETURNS trigger AS $$\nBEGIN\n"
+                + body + "  RETURN NEW;\nEND;\n$$ LANGUAGE plpgsql");
+        jdbc.execute("DROP TRIGGER IF EXISTS " + function + " ON " + table);
+        jdbc.execute("CREATE TRIGGER " + function + " BEFORE INSERT OR UPDATE ON " + table
+                + " FOR EACH ROW EXECUTE FUNCTION " + function + "()");
+    }
+
+    // Keyset batches in id order, each its own short transaction; a value the mapping doesn't
+    // know stays NULL and fails the validation below instead of being retried forever
+    private void backfill(JdbcTemplate jdbc, String table, List<ColumnChange> changes) {
+        String assignments = changes.stream()
+                .map(change -> change.column() + " = " + change.toColumn(change.legacy()))
+                .collect(Collectors.joining(", "));
+        String missing = changes.stream()
+                .map(change -> change.column() + " IS NULL")
+                .collect(Collectors.joining(" OR "));
+        String sql = "UPDATE " + table + " SET " + assignments + " WHERE id IN ("
+                + "SELECT id FROM " + table + " WHERE id > ? AND (" + missing + ") ORDER BY id LIMIT ?) "
+                + "RETURNING id";
+
+        long lastId = Long.MIN_VALUE;
+        long updated = 0;
+        while (true) {
+            List<Long> ids = jdbc.queryForList(sql, Long.class, lastId, batchSize);
+            if (ids.isEmpty()) {
+                break;
+            }
+            lastId = ids.stream().mapToLong(Long::longValue).max().getAsLong();
+            updated += ids.size();
+        }
+        log.info("Backfilled {} rows of {}", updated, table);
+    }
+
+    private void requireNotNull(JdbcTemplate jdbc, String table, String column) {
+        Boolean nullable = jdbc.queryForObject("SELECT is_nullable = 'YES' FROM information_schema.columns "
+                + "WHERE table_schema = current_schema() AND table_name = ? AND column_name = ?",
+                Boolean.class, table, column);
+        if (!Boolean.TRUE.equals(nullable)) {
+            return;
+        }
+        String constraint = table + "_" + column + "_not_null";
+        Integer exists = jdbc.queryForObject("SELECT COUNT(*) FROM pg_constraint "
+                + "WHERE conname = ? AND conrelid = ?::regclass", Integer.class, constraint, table);
+        if (exists == null || exists == 0) {
+            jdbc.execute("ALTER TABLE " + table + " ADD CONSTRAINT " + constraint
+                    + " CHECK (" + column + " IS NOT NULL) NOT VALID");
+        }
+        jdbc.execute("ALTER TABLE " + table + " VALIDATE CONSTRAINT " + constraint);
+    }
+
+    private boolean columnExists(JdbcTemplate jdbc, String table, String column) {
+        Integer count = jdbc.queryForObject("SELECT COUNT(*) FROM information_schema.columns "
+                + "WHERE table_schema = current_schema() AND table_name = ? AND column_name = ?",
+                Integer.class, table, column);
+        return count != null && count > 0;
+    }
+
+    private static String sqlArray(List<String> names) {
+        return names.stream()
+                .map(name -> "'" + name + "'")
+                .collect(Collectors.joining(", ", "ARRAY[", "]::varchar[]"));
+    }
+
+    // A legacy column replaced by a new one; the conversions are formats taking the source column
+    private record ColumnChange(String legacy, String column, String toColumnFormat, String toLegacyFormat) {
+
+        String toColumn(String legacyValue) {
+            return toColumnFormat.formatted(legacyValue);
+        }
+
+        String toLegacy(String columnValue) {
+            return toLegacyFormat.formatted(columnValue);
+        }
+    }
+}
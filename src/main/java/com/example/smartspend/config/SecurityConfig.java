@@ -3,8 +3,10 @@ package com.example.smartspend.config;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.core.annotation.Order;
 import org.springframework.security.authentication.AuthenticationManager;
 import org.springframework.security.authentication.dao.DaoAuthenticationProvider;
+import org.springframework.security.config.Customizer;
 import org.springframework.security.config.annotation.authentication.configuration.AuthenticationConfiguration;
 import org.springframework.security.config.annotation.web.builders.HttpSecurity;
 import org.springframework.security.config.annotation.web.configuration.EnableWebSecurity;
@@ -45,6 +47,26 @@ public class SecurityConfig {
         return config.getAuthenticationManager();
     }
     
+    // Actuator: health and info stay open for probes; metrics and the Prometheus scrape need an
+    // admin. A scraper can't obtain a JWT, so this chain also accepts HTTP Basic credentials
+    @Bean
+    @Order(1)
+    public SecurityFilterChain actuatorFilterChain(HttpSecurity http) throws Exception {
+        http
+            .securityMatcher("/actuator/**")
+            .csrf(csrf -> csrf.disable())
+            .sessionManagement(session -> session.sessionCreationPolicy(SessionCreationPolicy.STATELESS))
+            .authorizeHttpRequests(auth -> auth
+                .requestMatchers("/actuator/health/**", "/actuator/info").permitAll()
+                .anyRequest().hasRole("ADMIN")
+            )
+            .httpBasic(Customizer.withDefaults())
+            .authenticationProvider(authenticationProvider())
+            .addFilterBefore(jwtAuthenticationFilter, UsernamePasswordAuthenticationFilter.class);
+        
+        return http.build();
+    }
+    
     @Bean
     public SecurityFilterChain filterChain(HttpSecurity http) throws Exception {
         http
@@ -55,9 +77,11 @@ public class SecurityConfig {
                 .requestMatchers("/", "/info", "/public/**", "/auth/**", 
                                "/budgets/view/**", "/expenses/view/**",
                                "/css/**", "/js/**", "/images/**", "/webjars/**",
-                               "/*.html", "/**/*.html", "/**/*.css", "/**/*.js").permitAll()
-                // Allow access to API documentation and health checks
+                               "/*.html", "/*.css", "/*.js").permitAll()
+                // Allow access to API documentation
                 .requestMatchers("/v3/api-docs/**", "/swagger-ui/**", "/swagger-ui.html").permitAll()
+                // WebSocket handshake; STOMP CONNECT carries the JWT (StompAuthChannelInterceptor)
+                .requestMatchers("/ws", "/ws/**").permitAll()
                 // REST API endpoints require authentication
                 .requestMatchers("/api/**", "/budgets/**", "/expenses/**").authenticated()
                 // All other requests require authentication
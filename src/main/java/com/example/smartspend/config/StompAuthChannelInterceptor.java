@@ -0,0 +1,69 @@
+package com.example.smartspend.config;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.lang.NonNull;
+import org.springframework.messaging.Message;
+import org.springframework.messaging.MessageChannel;
+import org.springframework.messaging.MessagingException;
+import org.springframework.messaging.simp.stomp.StompCommand;
+import org.springframework.messaging.simp.stomp.StompHeaderAccessor;
+import org.springframework.messaging.support.ChannelInterceptor;
+import org.springframework.messaging.support.MessageHeaderAccessor;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.stereotype.Component;
+
+import com.example.smartspend.security.AppUserDetails;
+import com.example.smartspend.security.JwtUtil;
+import com.example.smartspend.security.UserDetailsCache;
+
+/**
+ * Authenticates STOMP sessions. Browsers can't set headers on the WebSocket handshake, so the
+ * JWT travels in the CONNECT frame's Authorization header instead. The session principal is
+ * named after the user id, which is what ExpenseChangedEvent carries, so pushes need no
+ * lookup. Clients may only subscribe to their own /user/queue destinations.
+ */
+@Component
+public class StompAuthChannelInterceptor implements ChannelInterceptor {
+
+    @Autowired
+    private JwtUtil jwtUtil;
+
+    @Autowired
+    private UserDetailsCache userDetailsCache;
+
+    @Override
+    public Message<?> preSend(@NonNull Message<?> message, @NonNull MessageChannel channel) {
+        StompHeaderAccessor accessor = MessageHeaderAccessor.getAccessor(message, StompHeaderAccessor.class);
+        if (accessor == null || accessor.getCommand() == null) {
+            return message;
+        }
+
+        if (accessor.getCommand() == StompCommand.CONNECT) {
+            accessor.setUser(authenticate(accessor.getFirstNativeHeader("Authorization")));
+        } else if (accessor.getCommand() == StompCommand.SUBSCRIBE) {
+            String destination = accessor.getDestination();
+            if (accessor.getUser() == null || destination == null || !destination.startsWith("/user/queue/")) {
+                throw new MessagingException("Subscription not allowed: " + destination);
+            }
+        } else if (accessor.getCommand() == StompCommand.SEND) {
+            // Push-only channel
+            throw new MessagingException("Sending is not supported");
+        }
+        return message;
+    }
+
+    private UsernamePasswordAuthenticationToken authenticate(String authHeader) {
+        if (authHeader == null || !authHeader.startsWith("Bearer ")) {
+            throw new MessagingException("Missing bearer token");
+        }
+
+        String email = jwtUtil.extractValidEmail(authHeader.substring(7));
+        if (email == null) {
+            throw new MessagingException("Invalid token");
+        }
+
+        // Once per connection, not per message; the cached principal carries the id too
+        AppUserDetails userDetails = (AppUserDetails) userDetailsCache.load(email);
+        return new UsernamePasswordAuthenticationToken(userDetails.getId().toString(), null, userDetails.getAuthorities());
+    }
+}
@@ -0,0 +1,28 @@
+package com.example.smartspend.config;
+
+import java.util.Map;
+
+import org.slf4j.MDC;
+import org.springframework.lang.NonNull;
+import org.springframework.web.servlet.HandlerInterceptor;
+import org.springframework.web.servlet.HandlerMapping;
+
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+
+/**
+ * Adds the {userId} path variable of /expenses/user/{userId}-style routes to the logging
+ * MDC, so everything the service layer logs for the request carries it.
+ */
+public class UserLoggingInterceptor implements HandlerInterceptor {
+    
+    @Override
+    public boolean preHandle(@NonNull HttpServletRequest request, @NonNull HttpServletResponse response,
+                             @NonNull Object handler) {
+        Object variables = request.getAttribute(HandlerMapping.URI_TEMPLATE_VARIABLES_ATTRIBUTE);
+        if (variables instanceof Map<?, ?> pathVariables && pathVariables.get("userId") != null) {
+            MDC.put(RequestCorrelationFilter.USER_ID_KEY, pathVariables.get("userId").toString());
+        }
+        return true;
+    }
+}
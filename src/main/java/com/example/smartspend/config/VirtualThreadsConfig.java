@@ -0,0 +1,37 @@
+package com.example.smartspend.config;
+
+import javax.sql.DataSource;
+
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.boot.autoconfigure.thread.Threading;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.env.Environment;
+import org.springframework.lang.NonNull;
+
+/**
+ * Opt-in virtual threads: spring.threads.virtual.enabled=true makes Spring Boot run Tomcat
+ * request handling, @Scheduled jobs (email dispatcher, summary and rollup jobs) and its task
+ * executors on virtual threads, on Java 21 or newer; older runtimes ignore the setting.
+ * While active, the DataSource is put behind ConnectionLimitingDataSource.
+ */
+@Configuration
+public class VirtualThreadsConfig {
+    
+    @Bean
+    public static BeanPostProcessor connectionLimitingPostProcessor(Environment environment) {
+        return new BeanPostProcessor() {
+            @Override
+            public Object postProcessAfterInitialization(@NonNull Object bean, @NonNull String beanName) {
+                if (bean instanceof DataSource dataSource && !(bean instanceof ConnectionLimitingDataSource)
+                        && Threading.VIRTUAL.isActive(environment)) {
+                    int maxConcurrency = environment.getProperty("app.db.max-concurrency", Integer.class,
+                            environment.getProperty("spring.datasource.hikari.maximum-pool-size", Integer.class, 10));
+                    long acquireTimeoutMs = environment.getProperty("app.db.acquire-timeout-ms", Long.class, 30000L);
+                    return new ConnectionLimitingDataSource(dataSource, maxConcurrency, acquireTimeoutMs);
+                }
+                return bean;
+            }
+        };
+    }
+}
@@ -0,0 +1,24 @@
+package com.example.smartspend.config;
+
+import org.springframework.context.annotation.Configuration;
+import org.springframework.format.FormatterRegistry;
+import org.springframework.lang.NonNull;
+import org.springframework.web.servlet.config.annotation.InterceptorRegistry;
+import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
+
+import com.example.smartspend.entity.Money;
+
+@Configuration
+public class WebMvcConfig implements WebMvcConfigurer {
+    
+    @Override
+    public void addInterceptors(@NonNull InterceptorRegistry registry) {
+        registry.addInterceptor(new UserLoggingInterceptor());
+    }
+    
+    // Money is a Number, so without this the generic String-to-Number converter would claim it
+    @Override
+    public void addFormatters(@NonNull FormatterRegistry registry) {
+        registry.addConverter(String.class, Money.class, Money::valueOf);
+    }
+}
\ No newline at end of file
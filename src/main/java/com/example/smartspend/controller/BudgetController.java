@@ -19,9 +19,15 @@ import org.springframework.web.bind.annotation.RequestBody;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.ResponseBody;
+import org.springframework.web.context.request.ServletWebRequest;
 
+import com.example.smartspend.dto.BudgetDashboard;
+import com.example.smartspend.dto.BudgetUtilization;
+import com.example.smartspend.dto.BudgetView;
 import com.example.smartspend.entity.Budget;
+import com.example.smartspend.entity.Money;
 import com.example.smartspend.service.BudgetService;
+import com.example.smartspend.service.DashboardService;
 
 @Controller
 @RequestMapping("/budgets")
@@ -30,6 +36,12 @@ public class BudgetController {
     @Autowired
     private BudgetService budgetService;
     
+    @Autowired
+    private DashboardService dashboardService;
+    
+    @Autowired
+    private ConditionalRequests conditionalRequests;
+    
     // ========== HTML VIEW ENDPOINTS ==========
     
     // Show main budgets page (HTML)
@@ -37,23 +49,12 @@ public class BudgetController {
     public String showBudgetsPage(Model model) {
         try {
             // For now using hardcoded userId - in real app, get from authenticated user
-            List<Budget> budgets = budgetService.getUserBudgets(1L);
-            model.addAttribute("budgets", budgets);
-            model.addAttribute("totalBudgets", budgets.size());
-            
-            // Calculate total amount
-            double totalAmount = budgets.stream()
-                    .mapToDouble(Budget::getAmount)
-                    .sum();
-            model.addAttribute("totalAmount", String.format("%.2f", totalAmount));
-            
-            // Calculate active budgets (budgets for current month)
-            int currentMonth = java.time.LocalDate.now().getMonthValue();
-            int currentYear = java.time.LocalDate.now().getYear();
-            long activeBudgets = budgets.stream()
-                    .filter(b -> b.getMonth().equals(currentMonth) && b.getYear().equals(currentYear))
-                    .count();
-            model.addAttribute("activeBudgets", activeBudgets);
+            // Current period's budgets with utilization; counts come from one aggregate query
+            BudgetDashboard dashboard = dashboardService.getBudgetDashboard(1L);
+            model.addAttribute("budgets", dashboard.currentBudgets());
+            model.addAttribute("totalBudgets", dashboard.budgetCount());
+            model.addAttribute("totalAmount", dashboard.totalAmount().toString());
+            model.addAttribute("activeBudgets", dashboard.activeBudgets());
             
         } catch (Exception e) {
             model.addAttribute("error", "Error loading budgets: " + e.getMessage());
@@ -66,16 +67,11 @@ public class BudgetController {
     @GetMapping("/view/{budgetId}")
     public String showBudgetDetails(@PathVariable Long budgetId, Model model) {
         try {
-            Budget budget = budgetService.getBudgetById(budgetId);
+            // Spend for the budget's own period, from its rollup row
+            BudgetUtilization budget = dashboardService.getBudgetUtilization(budgetId);
             model.addAttribute("budget", budget);
-            
-            // Calculate utilization (placeholder)
-            double utilization = calculateBudgetUtilization(budget);
-            model.addAttribute("utilization", utilization);
-            
-            // Calculate remaining amount
-            double remaining = budget.getAmount() * (1 - (utilization / 100));
-            model.addAttribute("remaining", String.format("%.2f", remaining));
+            model.addAttribute("utilization", budget.utilization());
+            model.addAttribute("remaining", budget.remaining().toString());
             
         } catch (Exception e) {
             model.addAttribute("error", "Budget not found: " + e.getMessage());
@@ -90,9 +86,9 @@ public class BudgetController {
     // Get all budgets (JSON)
     @GetMapping
     @ResponseBody
-    public ResponseEntity<List<Budget>> getAllBudgets() {
+    public ResponseEntity<List<BudgetView>> getAllBudgets() {
         try {
-            List<Budget> budgets = budgetService.getAllBudgets();
+            List<BudgetView> budgets = budgetService.getAllBudgets();
             return ResponseEntity.ok(budgets);
         } catch (Exception e) {
             return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).build();
@@ -102,9 +98,13 @@ public class BudgetController {
     // Get budgets for specific user (JSON)
     @GetMapping("/user/{userId}")
     @ResponseBody
-    public ResponseEntity<?> getUserBudgets(@PathVariable Long userId) {
+    public ResponseEntity<?> getUserBudgets(@PathVariable Long userId, ServletWebRequest webRequest) {
+        // Unchanged since the client's copy: 304 without querying
+        if (conditionalRequests.notModified(userId, webRequest)) {
+            return null;
+        }
         try {
-            List<Budget> budgets = budgetService.getUserBudgets(userId);
+            List<BudgetView> budgets = budgetService.getUserBudgets(userId);
             return ResponseEntity.ok(budgets);
         } catch (RuntimeException e) {
             Map<String, Object> errorResponse = new HashMap<>();
@@ -119,7 +119,7 @@ public class BudgetController {
     @ResponseBody
     public ResponseEntity<?> getBudgetById(@PathVariable Long budgetId) {
         try {
-            Budget budget = budgetService.getBudgetById(budgetId);
+            BudgetView budget = budgetService.getBudgetView(budgetId);
             return ResponseEntity.ok(budget);
         } catch (RuntimeException e) {
             Map<String, Object> errorResponse = new HashMap<>();
@@ -140,7 +140,7 @@ public class BudgetController {
             Map<String, Object> response = new HashMap<>();
             response.put("message", "Budget created successfully");
             response.put("budgetId", createdBudget.getId());
-            response.put("budget", createdBudget);
+            response.put("budget", BudgetView.of(createdBudget));
             
             return ResponseEntity.status(HttpStatus.CREATED).body(response);
             
@@ -165,7 +165,7 @@ public class BudgetController {
             Map<String, Object> response = new HashMap<>();
             response.put("message", "Budget updated successfully");
             response.put("budgetId", updatedBudget.getId());
-            response.put("budget", updatedBudget);
+            response.put("budget", BudgetView.of(updatedBudget));
             
             return ResponseEntity.ok(response);
             
@@ -205,7 +205,7 @@ public class BudgetController {
     @ResponseBody
     public ResponseEntity<?> getBudgetsByCategory(@PathVariable String category) {
         try {
-            List<Budget> budgets = budgetService.getBudgetsByCategory(category);
+            List<BudgetView> budgets = budgetService.getBudgetsByCategory(category);
             return ResponseEntity.ok(budgets);
         } catch (RuntimeException e) {
             Map<String, Object> errorResponse = new HashMap<>();
@@ -225,9 +225,13 @@ public class BudgetController {
     @ResponseBody
     public ResponseEntity<?> getBudgetsByPeriod(
             @RequestParam Integer month, 
-            @RequestParam Integer year) {
+            @RequestParam Integer year,
+            ServletWebRequest webRequest) {
+        if (conditionalRequests.notModified(1L, webRequest)) {
+            return null;
+        }
         try {
-            List<Budget> budgets = budgetService.getBudgetsByUserIdAndMonthAndYear(1L, month, year);
+            List<BudgetView> budgets = budgetService.getPeriodBudgetViews(1L, month, year);
             return ResponseEntity.ok(budgets);
         } catch (Exception e) {
             Map<String, Object> errorResponse = new HashMap<>();
@@ -242,15 +246,19 @@ public class BudgetController {
     @ResponseBody
     public ResponseEntity<?> getTotalBudgetAmount(
             @RequestParam Integer month, 
-            @RequestParam Integer year) {
+            @RequestParam Integer year,
+            ServletWebRequest webRequest) {
+        if (conditionalRequests.notModified(1L, webRequest)) {
+            return null;
+        }
         try {
-            Double totalAmount = budgetService.getTotalBudgetAmountByUserAndMonth(1L, month, year);
+            Money totalAmount = budgetService.getTotalBudgetAmountByUserAndMonth(1L, month, year);
             
             Map<String, Object> response = new HashMap<>();
             response.put("userId", 1L);
             response.put("month", month);
             response.put("year", year);
-            response.put("totalBudgetAmount", totalAmount != null ? totalAmount : 0.0);
+            response.put("totalBudgetAmount", totalAmount);
             
             return ResponseEntity.ok(response);
             
@@ -316,14 +324,6 @@ public class BudgetController {
         return ResponseEntity.ok(response);
     }
     
-    // Utility method for budget utilization calculation
-    private double calculateBudgetUtilization(Budget budget) {
-        // Implement your actual budget utilization logic here
-        // This should calculate based on actual expenses vs budget
-        // For now, returning a placeholder value
-        return Math.min(75.0, 100.0); // Example: 75% utilized, max 100%
-    }
-    
     // Global exception handler for this controller
     @ExceptionHandler(Exception.class)
     @ResponseBody
@@ -0,0 +1,44 @@
+package com.example.smartspend.controller;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.CacheControl;
+import org.springframework.http.HttpHeaders;
+import org.springframework.stereotype.Component;
+import org.springframework.web.context.request.ServletWebRequest;
+
+import com.example.smartspend.dto.DataVersion;
+import com.example.smartspend.service.DataVersionService;
+
+/**
+ * Conditional GET support for user-scoped reads. The ETag and Last-Modified come from the
+ * user's data version, so a matching If-None-Match (or If-Modified-Since) is answered with 304
+ * before the handler runs any query.
+ */
+@Component
+public class ConditionalRequests {
+
+    // Let clients keep the body and revalidate, instead of the default no-store
+    private static final String CACHE_CONTROL = CacheControl.noCache().cachePrivate().getHeaderValue();
+
+    @Autowired
+    private DataVersionService dataVersionService;
+
+    // True when the client's copy is current; the 304 status and headers are then already set
+    public boolean notModified(Long userId, ServletWebRequest request) {
+        DataVersion version = currentVersion(userId, request);
+        return request.checkNotModified(version.etag(), version.lastModifiedMillis());
+    }
+
+    // For responses that also depend on something else, such as a default date range; no
+    // Last-Modified, since only the ETag carries the qualifiers
+    public boolean notModified(Long userId, ServletWebRequest request, Object... qualifiers) {
+        return request.checkNotModified(currentVersion(userId, request).etag(qualifiers));
+    }
+
+    private DataVersion currentVersion(Long userId, ServletWebRequest request) {
+        if (request.getResponse() != null) {
+            request.getResponse().setHeader(HttpHeaders.CACHE_CONTROL, CACHE_CONTROL);
+        }
+        return dataVersionService.current(userId);
+    }
+}
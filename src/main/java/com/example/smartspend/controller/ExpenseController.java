@@ -1,12 +1,26 @@
 package com.example.smartspend.controller;
 
+import java.io.BufferedOutputStream;
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
 import java.time.LocalDate;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.Consumer;
+import java.util.zip.GZIPOutputStream;
 
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.stereotype.Controller;
 import org.springframework.ui.Model;
@@ -17,21 +31,53 @@ import org.springframework.web.bind.annotation.PathVariable;
 import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.PutMapping;
 import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestHeader;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.ResponseBody;
+import org.springframework.web.context.request.ServletWebRequest;
+import org.springframework.web.multipart.MultipartFile;
 
+import com.example.smartspend.dto.ExpenseCursor;
+import com.example.smartspend.dto.ExpenseDashboard;
+import com.example.smartspend.dto.ExpensePage;
+import com.example.smartspend.dto.ExpenseTotals;
+import com.example.smartspend.dto.ExpenseView;
 import com.example.smartspend.entity.Category;
 import com.example.smartspend.entity.Expense;
+import com.example.smartspend.entity.Money;
+import com.example.smartspend.service.DashboardService;
+import com.example.smartspend.service.ExpenseImportService;
 import com.example.smartspend.service.ExpenseService;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SequenceWriter;
+
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
 
 @Controller
 @RequestMapping("/expenses")
 public class ExpenseController {
     
+    private static final String NDJSON = "application/x-ndjson";
+    private static final int EXPORT_BUFFER_SIZE = 16 * 1024;
+    
     @Autowired
     private ExpenseService expenseService;
     
+    @Autowired
+    private ExpenseImportService expenseImportService;
+    
+    @Autowired
+    private DashboardService dashboardService;
+    
+    @Autowired
+    private ConditionalRequests conditionalRequests;
+    
+    @Autowired
+    private ObjectMapper objectMapper;
+    
     // ========== HTML VIEW ENDPOINTS ==========
     
     // Show main expenses page (HTML)
@@ -39,32 +85,27 @@ public class ExpenseController {
     public String showExpensesPage(Model model) {
         try {
             // For now using hardcoded userId - in real app, get from authenticated user
-            List<Expense> expenses = expenseService.getUserExpenses(1L);
-            model.addAttribute("expenses", expenses);
-            model.addAttribute("totalExpenses", expenses.size());
+            // Newest transactions plus rollup-based totals; cost does not grow with history
+            ExpenseDashboard dashboard = dashboardService.getExpenseDashboard(1L);
+            model.addAttribute("expenses", dashboard.recentExpenses());
+            model.addAttribute("totalExpenses", dashboard.transactionCount());
             
-            // Calculate totals
-            double totalExpenseAmount = expenseService.getTotalExpenses(1L, 
-                LocalDate.now().withDayOfMonth(1), LocalDate.now());
-            double totalIncomeAmount = expenseService.getTotalIncome(1L, 
-                LocalDate.now().withDayOfMonth(1), LocalDate.now());
-            
-            model.addAttribute("totalExpenseAmount", String.format("%.2f", totalExpenseAmount));
-            model.addAttribute("totalIncomeAmount", String.format("%.2f", totalIncomeAmount));
-            model.addAttribute("netAmount", String.format("%.2f", totalIncomeAmount - totalExpenseAmount));
+            model.addAttribute("totalExpenseAmount", dashboard.monthExpenses().toString());
+            model.addAttribute("totalIncomeAmount", dashboard.monthIncome().toString());
+            model.addAttribute("netAmount", dashboard.netAmount().toString());
             
         } catch (Exception e) {
             model.addAttribute("error", "Error loading expenses: " + e.getMessage());
         }
         
-        return "expenses";
+        return "expences";
     }
     
     // Show expense details page (HTML)
     @GetMapping("/view/{expenseId}")
     public String showExpenseDetails(@PathVariable Long expenseId, Model model) {
         try {
-            Expense expense = expenseService.getExpenseById(expenseId);
+            ExpenseView expense = expenseService.getExpenseView(expenseId);
             model.addAttribute("expense", expense);
             
         } catch (Exception e) {
@@ -72,7 +113,7 @@ public class ExpenseController {
             return "redirect:/expenses/view";
         }
         
-        return "expense-details";
+        return "expences-details";
     }
     
     // ========== REST API ENDPOINTS ==========
@@ -80,9 +121,9 @@ public class ExpenseController {
     // Get all expenses (JSON)
     @GetMapping
     @ResponseBody
-    public ResponseEntity<List<Expense>> getAllExpenses() {
+    public ResponseEntity<List<ExpenseView>> getAllExpenses() {
         try {
-            List<Expense> expenses = expenseService.getAllExpenses();
+            List<ExpenseView> expenses = expenseService.getAllExpenses();
             return ResponseEntity.ok(expenses);
         } catch (Exception e) {
             return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).build();
@@ -92,9 +133,13 @@ public class ExpenseController {
     // Get expenses for specific user (JSON)
     @GetMapping("/user/{userId}")
     @ResponseBody
-    public ResponseEntity<?> getUserExpenses(@PathVariable Long userId) {
+    public ResponseEntity<?> getUserExpenses(@PathVariable Long userId, ServletWebRequest webRequest) {
+        // Unchanged since the client's copy: 304 without querying
+        if (conditionalRequests.notModified(userId, webRequest)) {
+            return null;
+        }
         try {
-            List<Expense> expenses = expenseService.getUserExpenses(userId);
+            List<ExpenseView> expenses = expenseService.getUserExpenses(userId);
             return ResponseEntity.ok(expenses);
         } catch (RuntimeException e) {
             Map<String, Object> errorResponse = new HashMap<>();
@@ -104,12 +149,202 @@ public class ExpenseController {
         }
     }
     
+    // Get one keyset page of a user's expenses, newest first (JSON)
+    @GetMapping("/user/{userId}/page")
+    @ResponseBody
+    public ResponseEntity<?> getUserExpensePage(
+            @PathVariable Long userId,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = "50") int size,
+            @RequestParam(required = false) String startDate,
+            @RequestParam(required = false) String endDate,
+            @RequestParam(required = false) String category,
+            @RequestParam(required = false) Money minAmount,
+            @RequestParam(required = false) Money maxAmount,
+            ServletWebRequest webRequest) {
+        if (conditionalRequests.notModified(userId, webRequest)) {
+            return null;
+        }
+        try {
+            LocalDate start = startDate != null ? LocalDate.parse(startDate) : null;
+            LocalDate end = endDate != null ? LocalDate.parse(endDate) : null;
+            Category cat = category != null ? Category.valueOf(category.toUpperCase()) : null;
+            ExpenseCursor after = cursor != null ? ExpenseCursor.decode(cursor) : null;
+            
+            ExpensePage page = expenseService.getExpensePage(userId, start, end, cat, minAmount, maxAmount, after, size);
+            return ResponseEntity.ok(page);
+        } catch (RuntimeException e) {
+            Map<String, Object> errorResponse = new HashMap<>();
+            errorResponse.put("error", e.getMessage());
+            errorResponse.put("status", "failed");
+            return ResponseEntity.badRequest().body(errorResponse);
+        }
+    }
+    
+    // Stream all of a user's expenses as newline-delimited JSON, newest first
+    @GetMapping(value = "/user/{userId}/stream", produces = NDJSON)
+    public void streamUserExpenses(@PathVariable Long userId, HttpServletResponse response) throws IOException {
+        response.setContentType(NDJSON);
+        response.setCharacterEncoding("UTF-8");
+        OutputStream out = response.getOutputStream();
+        
+        try {
+            writeNdjson(out, consumer -> expenseService.streamUserExpenses(userId, consumer));
+        } catch (UncheckedIOException e) {
+            throw e.getCause();
+        }
+        out.flush();
+    }
+    
+    // Export a user's expenses as CSV or NDJSON, newest first, streamed straight from a
+    // database cursor and gzipped on the fly when the client accepts it
+    @GetMapping("/user/{userId}/export")
+    public void exportUserExpenses(
+            @PathVariable Long userId,
+            @RequestParam(defaultValue = "csv") String format,
+            @RequestParam(required = false) String startDate,
+            @RequestParam(required = false) String endDate,
+            @RequestHeader(value = HttpHeaders.ACCEPT_ENCODING, required = false) String acceptEncoding,
+            HttpServletResponse response) throws IOException {
+        LocalDate start;
+        LocalDate end;
+        boolean csv = "csv".equalsIgnoreCase(format);
+        try {
+            if (!csv && !"ndjson".equalsIgnoreCase(format)) {
+                throw new IllegalArgumentException("Unsupported export format: " + format);
+            }
+            start = startDate != null ? LocalDate.parse(startDate) : null;
+            end = endDate != null ? LocalDate.parse(endDate) : null;
+        } catch (RuntimeException e) {
+            Map<String, Object> errorResponse = new HashMap<>();
+            errorResponse.put("error", e.getMessage());
+            errorResponse.put("status", "failed");
+            response.setStatus(HttpStatus.BAD_REQUEST.value());
+            response.setContentType(MediaType.APPLICATION_JSON_VALUE);
+            objectMapper.writeValue(response.getOutputStream(), errorResponse);
+            return;
+        }
+        
+        boolean gzip = acceptsGzip(acceptEncoding);
+        response.setContentType(csv ? "text/csv" : NDJSON);
+        response.setCharacterEncoding("UTF-8");
+        response.setHeader(HttpHeaders.CONTENT_DISPOSITION,
+                "attachment; filename=\"expenses-" + userId + (csv ? ".csv" : ".ndjson") + "\"");
+        response.setHeader(HttpHeaders.VARY, HttpHeaders.ACCEPT_ENCODING);
+        if (gzip) {
+            response.setHeader(HttpHeaders.CONTENT_ENCODING, "gzip");
+        }
+        
+        OutputStream out = gzip ? new GZIPOutputStream(response.getOutputStream(), EXPORT_BUFFER_SIZE)
+                                : response.getOutputStream();
+        try {
+            if (csv) {
+                writeCsv(userId, start, end, out);
+            } else {
+                writeNdjson(out, consumer -> expenseService.exportUserExpenses(userId, start, end, consumer));
+            }
+        } catch (UncheckedIOException e) {
+            throw e.getCause();
+        }
+        out.close();
+    }
+    
+    // Same columns the CSV import reads, plus the id
+    private void writeCsv(Long userId, LocalDate start, LocalDate end, OutputStream out) throws IOException {
+        Writer writer = new BufferedWriter(new OutputStreamWriter(out, StandardCharsets.UTF_8), EXPORT_BUFFER_SIZE);
+        writer.write("id,date,title,amount,category,type,description\n");
+        expenseService.exportUserExpenses(userId, start, end, expense -> {
+            try {
+                writer.write(String.valueOf(expense.id()));
+                writer.write(',');
+                writer.write(expense.date().toString());
+                writer.write(',');
+                writer.write(csvField(expense.title()));
+                writer.write(',');
+                writer.write(String.valueOf(expense.amount()));
+                writer.write(',');
+                writer.write(expense.category().name());
+                writer.write(',');
+                writer.write(expense.type().name());
+                writer.write(',');
+                writer.write(csvField(expense.description()));
+                writer.write('\n');
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        });
+        writer.flush();
+    }
+    
+    // One generator for the whole response instead of one serializer call per row
+    private void writeNdjson(OutputStream out, Consumer<Consumer<ExpenseView>> rows) throws IOException {
+        SequenceWriter writer = objectMapper.writer()
+                .withRootValueSeparator("\n")
+                .without(JsonGenerator.Feature.AUTO_CLOSE_TARGET)
+                .writeValues(new BufferedOutputStream(out, EXPORT_BUFFER_SIZE));
+        AtomicBoolean empty = new AtomicBoolean(true);
+        rows.accept(expense -> {
+            try {
+                writer.write(expense);
+                empty.set(false);
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        });
+        writer.flush();
+        if (!empty.get()) {
+            // The separator only goes between rows; terminate the last one
+            out.write('\n');
+        }
+    }
+    
+    // gzip, or *, listed with a non-zero quality; an explicit gzip entry wins over *
+    static boolean acceptsGzip(String acceptEncoding) {
+        if (acceptEncoding == null) {
+            return false;
+        }
+        Double gzip = null;
+        Double wildcard = null;
+        for (String entry : acceptEncoding.split(",")) {
+            String[] parts = entry.split(";");
+            String coding = parts[0].trim().toLowerCase();
+            double quality = 1.0;
+            for (int i = 1; i < parts.length; i++) {
+                String param = parts[i].trim();
+                if (param.startsWith("q=")) {
+                    try {
+                        quality = Double.parseDouble(param.substring(2).trim());
+                    } catch (NumberFormatException e) {
+                        quality = 0;
+                    }
+                }
+            }
+            if (coding.equals("gzip") || coding.equals("x-gzip")) {
+                gzip = quality;
+            } else if (coding.equals("*")) {
+                wildcard = quality;
+            }
+        }
+        Double quality = gzip != null ? gzip : wildcard;
+        return quality != null && quality > 0;
+    }
+    
+    private static String csvField(String value) {
+        if (value == null) {
+            return "";
+        }
+        if (value.indexOf(',') < 0 && value.indexOf('"') < 0 && value.indexOf('\n') < 0 && value.indexOf('\r') < 0) {
+            return value;
+        }
+        return '"' + value.replace("\"", "\"\"") + '"';
+    }
+    
     // Get expense by ID (JSON)
     @GetMapping("/{expenseId}")
     @ResponseBody
     public ResponseEntity<?> getExpenseById(@PathVariable Long expenseId) {
         try {
-            Expense expense = expenseService.getExpenseById(expenseId);
+            ExpenseView expense = expenseService.getExpenseView(expenseId);
             return ResponseEntity.ok(expense);
         } catch (RuntimeException e) {
             Map<String, Object> errorResponse = new HashMap<>();
@@ -130,7 +365,7 @@ public class ExpenseController {
             Map<String, Object> response = new HashMap<>();
             response.put("message", "Expense created successfully");
             response.put("expenseId", createdExpense.getId());
-            response.put("expense", createdExpense);
+            response.put("expense", ExpenseView.of(createdExpense));
             
             return ResponseEntity.status(HttpStatus.CREATED).body(response);
             
@@ -142,6 +377,35 @@ public class ExpenseController {
         }
     }
     
+    // Bulk import from a JSON array of expenses; valid rows are imported, invalid ones reported
+    @PostMapping(value = "/user/{userId}/import", consumes = MediaType.APPLICATION_JSON_VALUE)
+    @ResponseBody
+    public ResponseEntity<?> importExpensesJson(@PathVariable Long userId, HttpServletRequest request) {
+        try {
+            return ResponseEntity.ok(expenseImportService.importJson(userId, request.getInputStream()));
+        } catch (IOException | RuntimeException e) {
+            return importFailed(e);
+        }
+    }
+    
+    // Bulk import from a CSV upload with header: date,title,amount,category,type[,description]
+    @PostMapping(value = "/user/{userId}/import", consumes = MediaType.MULTIPART_FORM_DATA_VALUE)
+    @ResponseBody
+    public ResponseEntity<?> importExpensesCsv(@PathVariable Long userId, @RequestParam("file") MultipartFile file) {
+        try (InputStream input = file.getInputStream()) {
+            return ResponseEntity.ok(expenseImportService.importCsv(userId, input));
+        } catch (IOException | RuntimeException e) {
+            return importFailed(e);
+        }
+    }
+    
+    private ResponseEntity<?> importFailed(Exception e) {
+        Map<String, Object> errorResponse = new HashMap<>();
+        errorResponse.put("error", "Import failed: " + e.getMessage());
+        errorResponse.put("status", "failed");
+        return ResponseEntity.badRequest().body(errorResponse);
+    }
+    
     // Update existing expense (JSON)
     @PutMapping("/{expenseId}")
     @ResponseBody
@@ -155,7 +419,7 @@ public class ExpenseController {
             Map<String, Object> response = new HashMap<>();
             response.put("message", "Expense updated successfully");
             response.put("expenseId", updatedExpense.getId());
-            response.put("expense", updatedExpense);
+            response.put("expense", ExpenseView.of(updatedExpense));
             
             return ResponseEntity.ok(response);
             
@@ -198,14 +462,18 @@ public class ExpenseController {
             @RequestParam(required = false) String startDate,
             @RequestParam(required = false) String endDate,
             @RequestParam(required = false) String category,
-            @RequestParam(required = false) Double minAmount,
-            @RequestParam(required = false) Double maxAmount) {
+            @RequestParam(required = false) Money minAmount,
+            @RequestParam(required = false) Money maxAmount,
+            ServletWebRequest webRequest) {
+        if (conditionalRequests.notModified(userId, webRequest)) {
+            return null;
+        }
         try {
             LocalDate start = startDate != null ? LocalDate.parse(startDate) : null;
             LocalDate end = endDate != null ? LocalDate.parse(endDate) : null;
             Category cat = category != null ? Category.valueOf(category.toUpperCase()) : null;
             
-            List<Expense> expenses = expenseService.getFilteredExpenses(userId, start, end, cat, minAmount, maxAmount);
+            List<ExpenseView> expenses = expenseService.getFilteredExpenses(userId, start, end, cat, minAmount, maxAmount);
             return ResponseEntity.ok(expenses);
             
         } catch (Exception e) {
@@ -222,18 +490,26 @@ public class ExpenseController {
     public ResponseEntity<?> getTotals(
             @RequestParam Long userId,
             @RequestParam(required = false) String startDate,
-            @RequestParam(required = false) String endDate) {
+            @RequestParam(required = false) String endDate,
+            ServletWebRequest webRequest) {
         try {
             LocalDate start = startDate != null ? LocalDate.parse(startDate) : LocalDate.now().withDayOfMonth(1);
             LocalDate end = endDate != null ? LocalDate.parse(endDate) : LocalDate.now();
             
-            Double totalExpenses = expenseService.getTotalExpenses(userId, start, end);
-            Double totalIncome = expenseService.getTotalIncome(userId, start, end);
+            // The default range moves with the calendar, so it is part of the ETag
+            if (conditionalRequests.notModified(userId, webRequest, start, end)) {
+                return null;
+            }
+            
+            ExpenseTotals totals = expenseService.getPeriodTotals(userId, start, end);
             
             Map<String, Object> response = new HashMap<>();
-            response.put("totalExpenses", totalExpenses);
-            response.put("totalIncome", totalIncome);
-            response.put("netSavings", totalIncome - totalExpenses);
+            response.put("totalExpenses", totals.totalExpenses());
+            response.put("totalIncome", totals.totalIncome());
+            response.put("netSavings", totals.netSavings());
+            response.put("expenseCount", totals.expenseCount());
+            response.put("incomeCount", totals.incomeCount());
+            response.put("byCategory", totals.byCategory());
             response.put("startDate", start);
             response.put("endDate", end);
             
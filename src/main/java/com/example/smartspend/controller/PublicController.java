@@ -3,6 +3,9 @@ package com.example.smartspend.controller;
 import java.util.HashMap;
 import java.util.Map;
 
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.actuate.health.HealthComponent;
+import org.springframework.boot.actuate.health.HealthEndpoint;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RestController;
@@ -10,6 +13,9 @@ import org.springframework.web.bind.annotation.RestController;
 @RestController
 @RequestMapping("/public")
 public class PublicController {
+    
+    @Autowired
+    private HealthEndpoint healthEndpoint;
 
     @GetMapping("/info")
     public Map<String, Object> getInfo() {
@@ -25,11 +31,13 @@ public class PublicController {
     @GetMapping("/health")
     public Map<String, Object> healthCheck() {
         Map<String, Object> response = new HashMap<>();
-        response.put("status", "UP");
+        // Backed by the actuator health contributors (db is a live connection check)
+        HealthComponent database = healthEndpoint.healthForPath("db");
+        response.put("status", healthEndpoint.health().getStatus().getCode());
         response.put("timestamp", System.currentTimeMillis());
         response.put("service", "SmartSpend API");
         response.put("version", "1.0.0");
-        response.put("database", "connected");
+        response.put("database", database != null ? database.getStatus().getCode() : "UNKNOWN");
         response.put("environment", "production");
         return response;
     }
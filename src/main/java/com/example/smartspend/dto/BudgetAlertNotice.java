@@ -0,0 +1,18 @@
+package com.example.smartspend.dto;
+
+import com.example.smartspend.entity.BudgetAlertState;
+import com.example.smartspend.entity.Category;
+import com.example.smartspend.entity.Money;
+
+/**
+ * Live dashboard notice that a budget moved to a new alert state.
+ */
+public record BudgetAlertNotice(
+        Long budgetId,
+        String period,
+        Category category,
+        BudgetAlertState state,
+        Money budgetAmount,
+        Money spent,
+        double utilization) {
+}
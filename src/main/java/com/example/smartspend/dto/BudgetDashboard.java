@@ -0,0 +1,16 @@
+package com.example.smartspend.dto;
+
+import java.util.List;
+
+import com.example.smartspend.entity.Money;
+
+/**
+ * Figures for the budgets page: the current period's budgets with utilization, and counts
+ * over the user's whole budget history.
+ */
+public record BudgetDashboard(
+        List<BudgetUtilization> currentBudgets,
+        long budgetCount,
+        Money totalAmount,
+        long activeBudgets) {
+}
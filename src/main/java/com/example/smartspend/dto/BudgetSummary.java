@@ -0,0 +1,11 @@
+package com.example.smartspend.dto;
+
+/**
+ * Counts and sums over all of a user's budgets, with the number in the current period.
+ * The sum is in minor units.
+ */
+public record BudgetSummary(
+        Long budgetCount,
+        Long totalMinor,
+        Long activeBudgets) {
+}
@@ -0,0 +1,40 @@
+package com.example.smartspend.dto;
+
+import com.example.smartspend.entity.Category;
+import com.example.smartspend.entity.Money;
+
+/**
+ * A budget with its month-to-date spend, read in one query by joining the budget to its
+ * monthly rollup row. Same fields as {@link BudgetView} plus the spend figures.
+ */
+public record BudgetUtilization(
+        Long id,
+        Category category,
+        Money amount,
+        Integer month,
+        Integer year,
+        Money spent) {
+
+    public static final String SELECT = "SELECT new com.example.smartspend.dto.BudgetUtilization(" +
+            "b.id, b.category, b.amount, b.month, b.year, COALESCE(r.totalMinor, 0)) " +
+            "FROM Budget b LEFT JOIN MonthlyCategoryRollup r ON r.userId = b.user.id " +
+            "AND r.year = b.year AND r.month = b.month AND r.category = b.category " +
+            "AND r.type = com.example.smartspend.entity.TransactionType.EXPENSE ";
+
+    // The rollup total arrives as minor units
+    public BudgetUtilization(Long id, Category category, Money amount, Integer month, Integer year, Long spentMinor) {
+        this(id, category, amount, month, year, Money.ofMinor(spentMinor));
+    }
+
+    // Percent of the budget spent, one decimal; 0 for a zero budget
+    public double utilization() {
+        if (amount == null) {
+            return 0;
+        }
+        return Math.round(spent.percentOf(amount) * 10) / 10.0;
+    }
+
+    public Money remaining() {
+        return amount.minus(spent);
+    }
+}
@@ -0,0 +1,27 @@
+package com.example.smartspend.dto;
+
+import com.example.smartspend.entity.Budget;
+import com.example.smartspend.entity.BudgetAlertState;
+import com.example.smartspend.entity.Category;
+import com.example.smartspend.entity.Money;
+
+/**
+ * Read model of a budget as returned by the REST API, built by constructor-expression
+ * queries; same JSON shape as the Budget entity.
+ */
+public record BudgetView(
+        Long id,
+        Category category,
+        Money amount,
+        Integer month,
+        Integer year,
+        BudgetAlertState alertState) {
+
+    public static final String SELECT = "SELECT new com.example.smartspend.dto.BudgetView(" +
+            "b.id, b.category, b.amount, b.month, b.year, b.alertState) ";
+
+    public static BudgetView of(Budget budget) {
+        return new BudgetView(budget.getId(), budget.getCategory(), budget.getAmount(), budget.getMonth(),
+                budget.getYear(), budget.getAlertState());
+    }
+}
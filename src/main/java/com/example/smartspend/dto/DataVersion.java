@@ -0,0 +1,26 @@
+package com.example.smartspend.dto;
+
+import java.time.Instant;
+
+/**
+ * Per-user version of everything the expense and budget endpoints return. It only moves
+ * forward, so equal versions mean an unchanged representation and can serve as an ETag.
+ */
+public record DataVersion(Long version, Instant modifiedAt) {
+
+    public static final DataVersion INITIAL = new DataVersion(0L, null);
+
+    // Qualifiers distinguish responses that also depend on something besides the data (e.g. today's date)
+    public String etag(Object... qualifiers) {
+        StringBuilder etag = new StringBuilder("\"v").append(version);
+        for (Object qualifier : qualifiers) {
+            etag.append('-').append(qualifier);
+        }
+        return etag.append('"').toString();
+    }
+
+    // -1 when the user has never changed anything, which leaves Last-Modified unset
+    public long lastModifiedMillis() {
+        return modifiedAt != null ? modifiedAt.toEpochMilli() : -1;
+    }
+}
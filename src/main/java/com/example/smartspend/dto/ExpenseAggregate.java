@@ -0,0 +1,23 @@
+package com.example.smartspend.dto;
+
+import com.example.smartspend.entity.Category;
+import com.example.smartspend.entity.Money;
+import com.example.smartspend.entity.TransactionType;
+
+/**
+ * One row of a grouped aggregate over a user's transactions in a date range.
+ * Built directly by a JPQL constructor expression, so no Expense entities are loaded.
+ */
+public record ExpenseAggregate(
+        TransactionType type,
+        Category category,
+        Money total,
+        Long count,
+        Money min,
+        Money max) {
+
+    // SUM over the minor-unit column arrives as a plain Long
+    public ExpenseAggregate(TransactionType type, Category category, Long totalMinor, Long count, Money min, Money max) {
+        this(type, category, Money.ofMinor(totalMinor), count, min, max);
+    }
+}
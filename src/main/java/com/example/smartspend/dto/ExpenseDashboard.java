@@ -0,0 +1,37 @@
+package com.example.smartspend.dto;
+
+import java.util.List;
+
+import com.example.smartspend.entity.Money;
+import com.example.smartspend.entity.TransactionType;
+
+/**
+ * Figures for the expenses page: the newest transactions, the all-time transaction count and
+ * the current month's totals.
+ */
+public record ExpenseDashboard(
+        List<ExpenseView> recentExpenses,
+        long transactionCount,
+        Money monthExpenses,
+        Money monthIncome) {
+
+    public static ExpenseDashboard from(List<ExpenseView> recentExpenses, List<RollupTypeSummary> summaries) {
+        long transactionCount = 0;
+        long monthExpenses = 0;
+        long monthIncome = 0;
+        for (RollupTypeSummary summary : summaries) {
+            transactionCount += summary.count();
+            if (summary.type() == TransactionType.INCOME) {
+                monthIncome += summary.monthTotalMinor();
+            } else {
+                monthExpenses += summary.monthTotalMinor();
+            }
+        }
+        return new ExpenseDashboard(recentExpenses, transactionCount, Money.ofMinor(monthExpenses),
+                Money.ofMinor(monthIncome));
+    }
+
+    public Money netAmount() {
+        return monthIncome.minus(monthExpenses);
+    }
+}
@@ -0,0 +1,15 @@
+package com.example.smartspend.dto;
+
+import java.util.List;
+
+/**
+ * Outcome of a bulk import. Valid rows are imported even when others are rejected;
+ * only the first errors are listed when {@code errorsTruncated} is set.
+ */
+public record ExpenseImportResult(
+        int totalRows,
+        int imported,
+        int rejected,
+        List<ImportRowError> errors,
+        boolean errorsTruncated) {
+}
@@ -0,0 +1,9 @@
+package com.example.smartspend.dto;
+
+import java.util.List;
+
+/**
+ * A single keyset page of expenses. {@code nextCursor} is null on the last page.
+ */
+public record ExpensePage(List<ExpenseView> items, String nextCursor, boolean hasMore) {
+}
@@ -3,6 +3,7 @@ package com.example.smartspend.dto;
 import java.time.LocalDate;
 
 import com.example.smartspend.entity.Category;
+import com.example.smartspend.entity.Money;
 import com.example.smartspend.entity.TransactionType;
 
 import jakarta.validation.constraints.NotBlank;
@@ -15,7 +16,7 @@ public class ExpenseRequest {
     
     @NotNull
     @Positive
-    private Double amount;
+    private Money amount;
 
     @NotNull
     private Category category;
@@ -31,8 +32,8 @@ public class ExpenseRequest {
     public String getTitle() { return title; }
     public void setTitle(String title) { this.title = title; }
 
-    public Double getAmount() { return amount; }
-    public void setAmount(Double amount) { this.amount = amount; }
+    public Money getAmount() { return amount; }
+    public void setAmount(Money amount) { this.amount = amount; }
 
     public Category getCategory() { return category; }
     public void setCategory(Category category) { this.category = category; }
@@ -0,0 +1,42 @@
+package com.example.smartspend.dto;
+
+import java.util.List;
+
+import com.example.smartspend.entity.Money;
+import com.example.smartspend.entity.TransactionType;
+
+/**
+ * Period totals folded from the grouped {@link ExpenseAggregate} rows. The fold adds minor
+ * units, so totals are exact and no intermediate Money is created.
+ */
+public record ExpenseTotals(
+        Money totalExpenses,
+        Money totalIncome,
+        long expenseCount,
+        long incomeCount,
+        List<ExpenseAggregate> byCategory) {
+
+    public static ExpenseTotals from(List<ExpenseAggregate> aggregates) {
+        long totalExpenses = 0;
+        long totalIncome = 0;
+        long expenseCount = 0;
+        long incomeCount = 0;
+
+        for (ExpenseAggregate aggregate : aggregates) {
+            if (aggregate.type() == TransactionType.INCOME) {
+                totalIncome += aggregate.total().minorUnits();
+                incomeCount += aggregate.count();
+            } else {
+                totalExpenses += aggregate.total().minorUnits();
+                expenseCount += aggregate.count();
+            }
+        }
+
+        return new ExpenseTotals(Money.ofMinor(totalExpenses), Money.ofMinor(totalIncome), expenseCount, incomeCount,
+                aggregates);
+    }
+
+    public Money netSavings() {
+        return totalIncome.minus(totalExpenses);
+    }
+}
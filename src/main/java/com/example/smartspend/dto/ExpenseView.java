@@ -0,0 +1,33 @@
+package com.example.smartspend.dto;
+
+import java.time.LocalDate;
+
+import com.example.smartspend.entity.Category;
+import com.example.smartspend.entity.Expense;
+import com.example.smartspend.entity.Money;
+import com.example.smartspend.entity.TransactionType;
+
+/**
+ * Read model of an expense as returned by the REST API. List and detail queries build it
+ * with a JPQL constructor expression, so only these columns are read and nothing enters the
+ * persistence context; same JSON shape as the Expense entity.
+ */
+public record ExpenseView(
+        Long id,
+        String title,
+        Money amount,
+        Category category,
+        TransactionType type,
+        LocalDate date,
+        String description) {
+
+    // Select list for constructor-expression queries over an Expense aliased "e"
+    public static final String SELECT = "SELECT new com.example.smartspend.dto.ExpenseView(" +
+            "e.id, e.title, e.amount, e.category, e.type, e.date, e.description) ";
+
+    // For responses to writes, where the entity is already at hand
+    public static ExpenseView of(Expense expense) {
+        return new ExpenseView(expense.getId(), expense.getTitle(), expense.getAmount(), expense.getCategory(),
+                expense.getType(), expense.getDate(), expense.getDescription());
+    }
+}
@@ -0,0 +1,7 @@
+package com.example.smartspend.dto;
+
+/**
+ * A rejected import row. {@code row} is the 1-based array index for JSON and the line number for CSV.
+ */
+public record ImportRowError(int row, String message) {
+}
@@ -0,0 +1,17 @@
+package com.example.smartspend.dto;
+
+import com.example.smartspend.entity.Category;
+import com.example.smartspend.entity.TransactionType;
+
+/**
+ * Per month, category and type totals recomputed from raw expenses, used to rebuild rollups.
+ * Totals are in minor units.
+ */
+public record MonthlyRollupRow(
+        Integer year,
+        Integer month,
+        Category category,
+        TransactionType type,
+        Long totalMinor,
+        Long count) {
+}
@@ -0,0 +1,13 @@
+package com.example.smartspend.dto;
+
+import com.example.smartspend.entity.TransactionType;
+
+/**
+ * Per transaction type: the all-time transaction count and one month's total, folded from
+ * the monthly rollups in a single grouped query. The total is in minor units.
+ */
+public record RollupTypeSummary(
+        TransactionType type,
+        Long count,
+        Long monthTotalMinor) {
+}
@@ -0,0 +1,7 @@
+package com.example.smartspend.dto;
+
+/**
+ * The two user columns the monthly summary run needs.
+ */
+public record SummaryRecipient(Long id, String email) {
+}
@@ -0,0 +1,22 @@
+package com.example.smartspend.dto;
+
+import com.example.smartspend.entity.Category;
+import com.example.smartspend.entity.Money;
+import com.example.smartspend.entity.TransactionType;
+
+/**
+ * Live dashboard update for one (period, category, type) after a committed write. The deltas
+ * let a client adjust its totals in place; monthTotal is the committed value, so a client that
+ * missed a message is corrected by the next one. budgetAmount and utilization are set only for
+ * expenses in a budgeted category.
+ */
+public record TotalsDelta(
+        String period,
+        Category category,
+        TransactionType type,
+        Money amountDelta,
+        long countDelta,
+        Money monthTotal,
+        Money budgetAmount,
+        Double utilization) {
+}
@@ -1,5 +1,7 @@
 package com.example.smartspend.entity;
 
+import com.fasterxml.jackson.annotation.JsonIgnore;
+
 import jakarta.persistence.Column;
 import jakarta.persistence.Entity;
 import jakarta.persistence.EnumType;
@@ -11,24 +13,28 @@ import jakarta.persistence.Id;
 import jakarta.persistence.JoinColumn;
 import jakarta.persistence.ManyToOne;
 import jakarta.persistence.Table;
+import jakarta.persistence.UniqueConstraint;
 import jakarta.validation.constraints.NotNull;
 import jakarta.validation.constraints.Positive;
 
 @Entity
-@Table(name = "budgets")
+@Table(name = "budgets", uniqueConstraints = @UniqueConstraint(
+        name = "uk_budgets_user_category_period",
+        columnNames = {"user_id", "category_code", "month_value", "year_value"}))
 public class Budget {
     @Id
     @GeneratedValue(strategy = GenerationType.IDENTITY)
     private Long id;
 
-    @Enumerated(EnumType.STRING)
-    @Column(nullable = false)
+    // Stored as a code, migrated like Expense.category
+    @Column(name = "category_code")
     private Category category;
 
+    // Minor units, migrated like Expense.amount
     @NotNull
     @Positive
-    @Column(nullable = false)
-    private Double amount;
+    @Column(name = "amount_minor")
+    private Money amount;
 
     @Column(name = "month_value", nullable = false)
     private Integer month;
@@ -36,13 +42,18 @@ public class Budget {
     @Column(name = "year_value", nullable = false)
     private Integer year;
 
+    @Enumerated(EnumType.STRING)
+    @Column(name = "alert_state", length = 16)
+    private BudgetAlertState alertState = BudgetAlertState.NONE;
+
+    @JsonIgnore
     @ManyToOne(fetch = FetchType.LAZY)
     @JoinColumn(name = "user_id", nullable = false)
     private User user;
 
     public Budget() {}
 
-    public Budget(Category category, Double amount, Integer month, Integer year) {
+    public Budget(Category category, Money amount, Integer month, Integer year) {
         this.category = category;
         this.amount = amount;
         this.month = month;
@@ -55,8 +66,8 @@ public class Budget {
     public Category getCategory() { return category; }
     public void setCategory(Category category) { this.category = category; }
 
-    public Double getAmount() { return amount; }
-    public void setAmount(Double amount) { this.amount = amount; }
+    public Money getAmount() { return amount; }
+    public void setAmount(Money amount) { this.amount = amount; }
 
     public Integer getMonth() { return month; }
     public void setMonth(Integer month) { this.month = month; }
@@ -64,6 +75,10 @@ public class Budget {
     public Integer getYear() { return year; }
     public void setYear(Integer year) { this.year = year; }
 
+    // Rows created before alert tracking have no state yet
+    public BudgetAlertState getAlertState() { return alertState != null ? alertState : BudgetAlertState.NONE; }
+    public void setAlertState(BudgetAlertState alertState) { this.alertState = alertState; }
+
     public User getUser() { return user; }
     public void setUser(User user) { this.user = user; }
 }
\ No newline at end of file
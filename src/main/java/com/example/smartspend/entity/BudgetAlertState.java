@@ -0,0 +1,10 @@
+package com.example.smartspend.entity;
+
+/**
+ * Highest alert already sent for a budget. Alerts are only sent on an upward transition.
+ */
+public enum BudgetAlertState {
+    NONE,
+    WARNED,
+    EXCEEDED
+}
@@ -1,27 +1,56 @@
 package com.example.smartspend.entity;
 
+/**
+ * Stored as its {@link #code()} in a SMALLINT column through {@link CategoryConverter}.
+ * Codes are part of the schema: never renumber or reuse one, give new values the next code.
+ */
 public enum Category {
-    FOOD,
-    TRANSPORTATION,
-    ENTERTAINMENT,
-    SHOPPING,
-    HEALTHCARE,
-    BILLS,
-    EDUCATION,
-    TRAVEL,
-    GROCERIES,
-    DINING,
-    UTILITIES,
-    RENT,
-    MORTGAGE,
-    INSURANCE,
-    SAVINGS,
-    INVESTMENTS,
-    GIFTS,
-    CHARITY,
-    PERSONAL_CARE,
-    PETS,
-    CHILDCARE,
-    SUBSCRIPTIONS,
-    OTHER
-}
\ No newline at end of file
+    FOOD(1),
+    TRANSPORTATION(2),
+    ENTERTAINMENT(3),
+    SHOPPING(4),
+    HEALTHCARE(5),
+    BILLS(6),
+    EDUCATION(7),
+    TRAVEL(8),
+    GROCERIES(9),
+    DINING(10),
+    UTILITIES(11),
+    RENT(12),
+    MORTGAGE(13),
+    INSURANCE(14),
+    SAVINGS(15),
+    INVESTMENTS(16),
+    GIFTS(17),
+    CHARITY(18),
+    PERSONAL_CARE(19),
+    PETS(20),
+    CHILDCARE(21),
+    SUBSCRIPTIONS(22),
+    OTHER(23);
+
+    private static final Category[] BY_CODE = new Category[values().length + 1];
+
+    static {
+        for (Category category : values()) {
+            BY_CODE[category.code] = category;
+        }
+    }
+
+    private final short code;
+
+    Category(int code) {
+        this.code = (short) code;
+    }
+
+    public short code() {
+        return code;
+    }
+
+    public static Category fromCode(short code) {
+        if (code <= 0 || code >= BY_CODE.length || BY_CODE[code] == null) {
+            throw new IllegalArgumentException("Unknown category code: " + code);
+        }
+        return BY_CODE[code];
+    }
+}
@@ -0,0 +1,21 @@
+package com.example.smartspend.entity;
+
+import jakarta.persistence.AttributeConverter;
+import jakarta.persistence.Converter;
+
+/**
+ * Stores {@link Category} as its two-byte code instead of its name.
+ */
+@Converter(autoApply = true)
+public class CategoryConverter implements AttributeConverter<Category, Short> {
+
+    @Override
+    public Short convertToDatabaseColumn(Category category) {
+        return category != null ? category.code() : null;
+    }
+
+    @Override
+    public Category convertToEntityAttribute(Short code) {
+        return code != null ? Category.fromCode(code) : null;
+    }
+}
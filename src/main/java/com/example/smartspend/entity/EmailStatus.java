@@ -0,0 +1,9 @@
+package com.example.smartspend.entity;
+
+public enum EmailStatus {
+    PENDING,
+    // Claimed by a dispatcher until next_attempt_at (the lease); reclaimed if it runs out
+    IN_PROGRESS,
+    SENT,
+    FAILED
+}
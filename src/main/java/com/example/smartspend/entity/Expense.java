@@ -2,43 +2,54 @@ package com.example.smartspend.entity;
 
 import java.time.LocalDate;
 
+import com.fasterxml.jackson.annotation.JsonIgnore;
+
 import jakarta.persistence.Column;
 import jakarta.persistence.Entity;
-import jakarta.persistence.EnumType;
-import jakarta.persistence.Enumerated;
 import jakarta.persistence.FetchType;
 import jakarta.persistence.GeneratedValue;
 import jakarta.persistence.GenerationType;
 import jakarta.persistence.Id;
+import jakarta.persistence.Index;
 import jakarta.persistence.JoinColumn;
 import jakarta.persistence.ManyToOne;
+import jakarta.persistence.SequenceGenerator;
 import jakarta.persistence.Table;
 import jakarta.validation.constraints.NotBlank;
 import jakarta.validation.constraints.NotNull;
 import jakarta.validation.constraints.Positive;
 
 @Entity
-@Table(name = "expenses")
+@Table(name = "expenses", indexes = {
+        // id breaks date ties so newest-first lists and keyset pages read the index in order
+        @Index(name = "idx_expenses_user_date_id", columnList = "user_id, date, id"),
+        @Index(name = "idx_expenses_user_category_code_date", columnList = "user_id, category_code, date"),
+        @Index(name = "idx_expenses_user_type_code_date", columnList = "user_id, type_code, date")
+})
 public class Expense {
+    // Pooled sequence instead of IDENTITY so Hibernate can batch inserts (bulk import)
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "expenses_seq")
+    @SequenceGenerator(name = "expenses_seq", sequenceName = "expenses_seq", allocationSize = 50)
     private Long id;
 
     @NotBlank
     @Column(nullable = false)
     private String title;
 
+    // Minor units; nullable in the mapping only so ddl-auto can add it to populated tables.
+    // SchemaMigrations backfills it once from the old amount column and adds a NOT NULL check
     @NotNull
     @Positive
-    @Column(nullable = false)
-    private Double amount;
+    @Column(name = "amount_minor")
+    private Money amount;
 
-    @Enumerated(EnumType.STRING)
-    @Column(nullable = false)
+    // SMALLINT codes (see CategoryConverter), nullable in the mapping for the same reason as
+    // amount; SchemaMigrations fills them from the old name columns
+    @Column(name = "category_code")
     private Category category;
 
-    @Enumerated(EnumType.STRING)
-    @Column(name = "transaction_type", nullable = false)
+    @Column(name = "type_code")
     private TransactionType type;
 
     @Column(nullable = false)
@@ -46,13 +57,14 @@ public class Expense {
 
     private String description;
 
+    @JsonIgnore
     @ManyToOne(fetch = FetchType.LAZY)
     @JoinColumn(name = "user_id", nullable = false)
     private User user;
 
     public Expense() {}
 
-    public Expense(String title, Double amount, Category category, TransactionType type, LocalDate date, String description) {
+    public Expense(String title, Money amount, Category category, TransactionType type, LocalDate date, String description) {
         this.title = title;
         this.amount = amount;
         this.category = category;
@@ -67,8 +79,8 @@ public class Expense {
     public String getTitle() { return title; }
     public void setTitle(String title) { this.title = title; }
 
-    public Double getAmount() { return amount; }
-    public void setAmount(Double amount) { this.amount = amount; }
+    public Money getAmount() { return amount; }
+    public void setAmount(Money amount) { this.amount = amount; }
 
     public Category getCategory() { return category; }
     public void setCategory(Category category) { this.category = category; }
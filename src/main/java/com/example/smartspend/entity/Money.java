@@ -0,0 +1,181 @@
+package com.example.smartspend.entity;
+
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.databind.DeserializationContext;
+import com.fasterxml.jackson.databind.SerializerProvider;
+import com.fasterxml.jackson.databind.annotation.JsonDeserialize;
+import com.fasterxml.jackson.databind.annotation.JsonSerialize;
+import com.fasterxml.jackson.databind.deser.std.StdScalarDeserializer;
+import com.fasterxml.jackson.databind.ser.std.StdScalarSerializer;
+
+/**
+ * An exact amount of money, held as a whole number of minor units (cents). The app has a
+ * single currency with two decimals, so no currency is carried.
+ *
+ * Persisted as a BIGINT through {@link MoneyConverter}, so sums and comparisons run on
+ * integers in the database too. In JSON it is a plain number with two decimals, the same
+ * shape the Double amounts had. Inputs with more than two decimals are rounded half-up to
+ * the cent. It is a {@link Number} so validation (@Positive) and template number formatting
+ * accept it unchanged; doubleValue() is for display and ratios only, never for arithmetic.
+ *
+ * Aggregations should add {@link #minorUnits()} into a long and wrap the result once,
+ * rather than chaining {@link #plus(Money)} per element.
+ */
+@JsonSerialize(using = Money.Serializer.class)
+@JsonDeserialize(using = Money.Deserializer.class)
+public final class Money extends Number implements Comparable<Money> {
+
+    private static final long serialVersionUID = 1L;
+
+    public static final int SCALE = 2;
+
+    public static final Money ZERO = new Money(0);
+
+    private final long minorUnits;
+
+    private Money(long minorUnits) {
+        this.minorUnits = minorUnits;
+    }
+
+    public static Money ofMinor(long minorUnits) {
+        return minorUnits == 0 ? ZERO : new Money(minorUnits);
+    }
+
+    public static Money of(BigDecimal amount) {
+        try {
+            return ofMinor(amount.setScale(SCALE, RoundingMode.HALF_UP).unscaledValue().longValueExact());
+        } catch (ArithmeticException e) {
+            throw new IllegalArgumentException("Amount out of range: " + amount);
+        }
+    }
+
+    // Goes through the shortest decimal representation, so 0.1 becomes exactly 10 cents
+    public static Money of(double amount) {
+        if (!Double.isFinite(amount)) {
+            throw new IllegalArgumentException("Invalid amount: " + amount);
+        }
+        return of(BigDecimal.valueOf(amount));
+    }
+
+    // Parses "12.5", "12.50" or "-3"; also what Spring uses to bind request parameters
+    public static Money valueOf(String amount) {
+        try {
+            return of(new BigDecimal(amount.trim()));
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException("Invalid amount: " + amount);
+        }
+    }
+
+    public long minorUnits() {
+        return minorUnits;
+    }
+
+    public Money plus(Money other) {
+        return ofMinor(Math.addExact(minorUnits, other.minorUnits));
+    }
+
+    public Money minus(Money other) {
+        return ofMinor(Math.subtractExact(minorUnits, other.minorUnits));
+    }
+
+    public Money negate() {
+        return ofMinor(Math.negateExact(minorUnits));
+    }
+
+    public boolean isPositive() {
+        return minorUnits > 0;
+    }
+
+    // This amount as a percentage of whole; 0 when whole is not positive
+    public double percentOf(Money whole) {
+        return whole.minorUnits > 0 ? minorUnits * 100.0 / whole.minorUnits : 0;
+    }
+
+    public BigDecimal toBigDecimal() {
+        return BigDecimal.valueOf(minorUnits, SCALE);
+    }
+
+    @Override
+    public int intValue() {
+        return (int) longValue();
+    }
+
+    @Override
+    public long longValue() {
+        return minorUnits / 100;
+    }
+
+    @Override
+    public float floatValue() {
+        return (float) doubleValue();
+    }
+
+    @Override
+    public double doubleValue() {
+        return minorUnits / 100.0;
+    }
+
+    @Override
+    public int compareTo(Money other) {
+        return Long.compare(minorUnits, other.minorUnits);
+    }
+
+    @Override
+    public boolean equals(Object other) {
+        return this == other || (other instanceof Money money && money.minorUnits == minorUnits);
+    }
+
+    @Override
+    public int hashCode() {
+        return Long.hashCode(minorUnits);
+    }
+
+    // Plain decimal with two places, e.g. "-12.50"; also the CSV export format
+    @Override
+    public String toString() {
+        return toBigDecimal().toPlainString();
+    }
+
+    // Written as a JSON number from the exact decimal, never through a double
+    public static class Serializer extends StdScalarSerializer<Money> {
+
+        public Serializer() {
+            super(Money.class);
+        }
+
+        @Override
+        public void serialize(Money value, JsonGenerator generator, SerializerProvider provider) throws IOException {
+            generator.writeNumber(value.toBigDecimal());
+        }
+    }
+
+    // Accepts a JSON number or a numeric string; numbers are read from their text, not as doubles
+    public static class Deserializer extends StdScalarDeserializer<Money> {
+
+        public Deserializer() {
+            super(Money.class);
+        }
+
+        @Override
+        public Money deserialize(JsonParser parser, DeserializationContext context) throws IOException {
+            JsonToken token = parser.currentToken();
+            try {
+                if (token == JsonToken.VALUE_NUMBER_INT || token == JsonToken.VALUE_NUMBER_FLOAT) {
+                    return of(parser.getDecimalValue());
+                }
+                if (token == JsonToken.VALUE_STRING) {
+                    return valueOf(parser.getText());
+                }
+            } catch (IllegalArgumentException e) {
+                return (Money) context.handleWeirdStringValue(Money.class, parser.getText(), e.getMessage());
+            }
+            return (Money) context.handleUnexpectedToken(Money.class, parser);
+        }
+    }
+}
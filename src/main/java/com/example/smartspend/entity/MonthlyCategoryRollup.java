@@ -0,0 +1,86 @@
+package com.example.smartspend.entity;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.GeneratedValue;
+import jakarta.persistence.GenerationType;
+import jakarta.persistence.Id;
+import jakarta.persistence.Table;
+import jakarta.persistence.UniqueConstraint;
+
+/**
+ * Running sum and count of a user's transactions per month, category and type.
+ * Maintained by ExpenseService on every write so monthly figures are a single row lookup.
+ * The total is kept as plain minor units (see {@link Money}) so it is summed as an integer.
+ */
+@Entity
+@Table(name = "monthly_category_rollups",
+       uniqueConstraints = @UniqueConstraint(name = "uk_rollup_user_period_category_type",
+               columnNames = {"user_id", "year_value", "month_value", "category_code", "type_code"}))
+public class MonthlyCategoryRollup {
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(name = "user_id", nullable = false)
+    private Long userId;
+
+    @Column(name = "year_value", nullable = false)
+    private Integer year;
+
+    @Column(name = "month_value", nullable = false)
+    private Integer month;
+
+    // Codes, migrated like Expense.category and Expense.type
+    @Column(name = "category_code")
+    private Category category;
+
+    @Column(name = "type_code")
+    private TransactionType type;
+
+    // Nullable in the mapping for the same reason as Expense.amount
+    @Column(name = "total_minor")
+    private Long totalMinor;
+
+    @Column(name = "txn_count", nullable = false)
+    private Long txnCount;
+
+    public MonthlyCategoryRollup() {}
+
+    public MonthlyCategoryRollup(Long userId, Integer year, Integer month, Category category,
+                                 TransactionType type, Long totalMinor, Long txnCount) {
+        this.userId = userId;
+        this.year = year;
+        this.month = month;
+        this.category = category;
+        this.type = type;
+        this.totalMinor = totalMinor;
+        this.txnCount = txnCount;
+    }
+
+    public Long getId() { return id; }
+    public void setId(Long id) { this.id = id; }
+
+    public Long getUserId() { return userId; }
+    public void setUserId(Long userId) { this.userId = userId; }
+
+    public Integer getYear() { return year; }
+    public void setYear(Integer year) { this.year = year; }
+
+    public Integer getMonth() { return month; }
+    public void setMonth(Integer month) { this.month = month; }
+
+    public Category getCategory() { return category; }
+    public void setCategory(Category category) { this.category = category; }
+
+    public TransactionType getType() { return type; }
+    public void setType(TransactionType type) { this.type = type; }
+
+    public Long getTotalMinor() { return totalMinor; }
+    public void setTotalMinor(Long totalMinor) { this.totalMinor = totalMinor; }
+
+    public Money getTotal() { return Money.ofMinor(totalMinor); }
+
+    public Long getTxnCount() { return txnCount; }
+    public void setTxnCount(Long txnCount) { this.txnCount = txnCount; }
+}
@@ -0,0 +1,86 @@
+package com.example.smartspend.entity;
+
+import java.time.LocalDateTime;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.EnumType;
+import jakarta.persistence.Enumerated;
+import jakarta.persistence.GeneratedValue;
+import jakarta.persistence.GenerationType;
+import jakarta.persistence.Id;
+import jakarta.persistence.Table;
+import jakarta.persistence.UniqueConstraint;
+
+/**
+ * Progress of the monthly summary run for one period. {@code lastUserId} is committed together
+ * with each chunk's queued emails, so a restarted run continues after the last finished chunk.
+ */
+@Entity
+@Table(name = "summary_runs", uniqueConstraints = @UniqueConstraint(
+        name = "uk_summary_runs_period", columnNames = {"year_value", "month_value"}))
+public class SummaryRun {
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(name = "year_value", nullable = false)
+    private Integer year;
+
+    @Column(name = "month_value", nullable = false)
+    private Integer month;
+
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false, length = 16)
+    private SummaryRunStatus status = SummaryRunStatus.RUNNING;
+
+    @Column(name = "last_user_id", nullable = false)
+    private Long lastUserId = 0L;
+
+    @Column(name = "processed_users", nullable = false)
+    private Long processedUsers = 0L;
+
+    @Column(name = "started_at", nullable = false)
+    private LocalDateTime startedAt;
+
+    @Column(name = "updated_at")
+    private LocalDateTime updatedAt;
+
+    @Column(name = "completed_at")
+    private LocalDateTime completedAt;
+
+    public SummaryRun() {}
+
+    public SummaryRun(Integer year, Integer month) {
+        this.year = year;
+        this.month = month;
+        this.startedAt = LocalDateTime.now();
+    }
+
+    public Long getId() { return id; }
+    public void setId(Long id) { this.id = id; }
+
+    public Integer getYear() { return year; }
+    public void setYear(Integer year) { this.year = year; }
+
+    public Integer getMonth() { return month; }
+    public void setMonth(Integer month) { this.month = month; }
+
+    public SummaryRunStatus getStatus() { return status; }
+    public void setStatus(SummaryRunStatus status) { this.status = status; }
+
+    public Long getLastUserId() { return lastUserId; }
+    public void setLastUserId(Long lastUserId) { this.lastUserId = lastUserId; }
+
+    public Long getProcessedUsers() { return processedUsers; }
+    public void setProcessedUsers(Long processedUsers) { this.processedUsers = processedUsers; }
+
+    public LocalDateTime getStartedAt() { return startedAt; }
+    public void setStartedAt(LocalDateTime startedAt) { this.startedAt = startedAt; }
+
+    public LocalDateTime getUpdatedAt() { return updatedAt; }
+    public void setUpdatedAt(LocalDateTime updatedAt) { this.updatedAt = updatedAt; }
+
+    public LocalDateTime getCompletedAt() { return completedAt; }
+    public void setCompletedAt(LocalDateTime completedAt) { this.completedAt = completedAt; }
+}
@@ -0,0 +1,6 @@
+package com.example.smartspend.entity;
+
+public enum SummaryRunStatus {
+    RUNNING,
+    COMPLETED
+}
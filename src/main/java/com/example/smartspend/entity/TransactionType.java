@@ -1,5 +1,28 @@
 package com.example.smartspend.entity;
 
+/**
+ * Stored as its {@link #code()} in a SMALLINT column through {@link TransactionTypeConverter};
+ * codes are fixed like {@link Category}'s.
+ */
 public enum TransactionType {
-    EXPENSE, INCOME
-}
\ No newline at end of file
+    EXPENSE(1), INCOME(2);
+
+    private final short code;
+
+    TransactionType(int code) {
+        this.code = (short) code;
+    }
+
+    public short code() {
+        return code;
+    }
+
+    public static TransactionType fromCode(short code) {
+        for (TransactionType type : values()) {
+            if (type.code == code) {
+                return type;
+            }
+        }
+        throw new IllegalArgumentException("Unknown transaction type code: " + code);
+    }
+}
@@ -0,0 +1,21 @@
+package com.example.smartspend.entity;
+
+import jakarta.persistence.AttributeConverter;
+import jakarta.persistence.Converter;
+
+/**
+ * Stores {@link TransactionType} as its two-byte code instead of its name.
+ */
+@Converter(autoApply = true)
+public class TransactionTypeConverter implements AttributeConverter<TransactionType, Short> {
+
+    @Override
+    public Short convertToDatabaseColumn(TransactionType type) {
+        return type != null ? type.code() : null;
+    }
+
+    @Override
+    public TransactionType convertToEntityAttribute(Short code) {
+        return code != null ? TransactionType.fromCode(code) : null;
+    }
+}
@@ -1,5 +1,6 @@
 package com.example.smartspend.entity;
 
+import java.time.Instant;
 import java.time.LocalDateTime;
 import java.util.ArrayList;
 import java.util.List;
@@ -39,11 +40,11 @@ public class User {
     private String password;
 
     @NotBlank
-    @Column(name = "first_name")
+    @Column(name = "first_name", nullable = false)
     private String firstName;
 
     @NotBlank
-    @Column(name = "last_name")
+    @Column(name = "last_name", nullable = false)
     private String lastName;
 
     @Enumerated(EnumType.STRING)
@@ -59,6 +60,14 @@ public class User {
     @Column(name = "created_at")
     private LocalDateTime createdAt;
 
+    // Bumped on every change to the user's expenses or budgets, only by the bulk update in
+    // UserRepository.bumpDataVersion; read-only here so saving a User can never move it back
+    @Column(name = "data_version", insertable = false, updatable = false)
+    private Long dataVersion;
+
+    @Column(name = "data_modified_at", insertable = false, updatable = false)
+    private Instant dataModifiedAt;
+
     @OneToMany(mappedBy = "user", cascade = CascadeType.ALL, fetch = FetchType.LAZY)
     private List<Expense> expenses = new ArrayList<>();
 
@@ -105,6 +114,9 @@ public class User {
     public LocalDateTime getCreatedAt() { return createdAt; }
     public void setCreatedAt(LocalDateTime createdAt) { this.createdAt = createdAt; }
 
+    public Long getDataVersion() { return dataVersion; }
+    public Instant getDataModifiedAt() { return dataModifiedAt; }
+
     public List<Expense> getExpenses() { return expenses; }
     public void setExpenses(List<Expense> expenses) { this.expenses = expenses; }
 
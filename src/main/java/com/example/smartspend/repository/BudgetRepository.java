@@ -1,14 +1,20 @@
 package com.example.smartspend.repository;
 
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import com.example.smartspend.dto.BudgetSummary;
+import com.example.smartspend.dto.BudgetUtilization;
+import com.example.smartspend.dto.BudgetView;
 import com.example.smartspend.entity.Budget;
+import com.example.smartspend.entity.BudgetAlertState;
 import com.example.smartspend.entity.Category;
 
 @Repository
@@ -32,9 +38,54 @@ public interface BudgetRepository extends JpaRepository<Budget, Long> {
     // Get budgets for a specific month and year
     List<Budget> findByUserIdAndMonthAndYear(Long userId, Integer month, Integer year);
     
-    // Get total budget amount for a user in specific month/year
+    List<Budget> findByUserIdInAndMonthAndYear(Collection<Long> userIds, Integer month, Integer year);
+    
+    // Read models for the REST API, built without loading Budget entities
+    @Query(BudgetView.SELECT + "FROM Budget b")
+    List<BudgetView> findAllViews();
+    
+    @Query(BudgetView.SELECT + "FROM Budget b WHERE b.user.id = :userId")
+    List<BudgetView> findViewsByUserId(@Param("userId") Long userId);
+    
+    @Query(BudgetView.SELECT + "FROM Budget b WHERE b.id = :id")
+    Optional<BudgetView> findViewById(@Param("id") Long id);
+    
+    @Query(BudgetView.SELECT + "FROM Budget b WHERE b.category = :category")
+    List<BudgetView> findViewsByCategory(@Param("category") Category category);
+    
+    // Budgets joined to their month's expense rollup, for utilization without loading expenses
+    @Query(BudgetUtilization.SELECT + "WHERE b.user.id = :userId AND b.month = :month AND b.year = :year " +
+           "ORDER BY b.category")
+    List<BudgetUtilization> findPeriodUtilization(@Param("userId") Long userId,
+                                                  @Param("month") Integer month,
+                                                  @Param("year") Integer year);
+    
+    @Query(BudgetUtilization.SELECT + "WHERE b.id = :id")
+    Optional<BudgetUtilization> findUtilizationById(@Param("id") Long id);
+    
+    @Query("SELECT new com.example.smartspend.dto.BudgetSummary(COUNT(b), COALESCE(SUM(b.amount), 0), " +
+           "COALESCE(SUM(CASE WHEN b.month = :month AND b.year = :year THEN 1 ELSE 0 END), 0)) " +
+           "FROM Budget b WHERE b.user.id = :userId")
+    BudgetSummary summarize(@Param("userId") Long userId,
+                            @Param("month") Integer month,
+                            @Param("year") Integer year);
+    
+    // Get total budget amount for a user in specific month/year, in minor units
     @Query("SELECT COALESCE(SUM(b.amount), 0) FROM Budget b WHERE b.user.id = :userId AND b.month = :month AND b.year = :year")
-    Double getTotalBudgetAmountByUserAndMonth(@Param("userId") Long userId, 
-                                             @Param("month") Integer month, 
-                                             @Param("year") Integer year);
-}
\ No newline at end of file
+    Long getTotalBudgetAmountByUserAndMonth(@Param("userId") Long userId, 
+                                           @Param("month") Integer month, 
+                                           @Param("year") Integer year);
+    
+    // The stored state, bypassing the cached period snapshot; empty once the budget is deleted
+    @Query("SELECT COALESCE(b.alertState, com.example.smartspend.entity.BudgetAlertState.NONE) " +
+           "FROM Budget b WHERE b.id = :id")
+    Optional<BudgetAlertState> findAlertStateById(@Param("id") Long id);
+    
+    // Compare-and-set of the alert state; returns 0 when another evaluation already moved it
+    @Modifying(clearAutomatically = true)
+    @Query("UPDATE Budget b SET b.alertState = :next WHERE b.id = :id AND " +
+           "COALESCE(b.alertState, com.example.smartspend.entity.BudgetAlertState.NONE) = :current")
+    int transitionAlertState(@Param("id") Long id,
+                             @Param("current") BudgetAlertState current,
+                             @Param("next") BudgetAlertState next);
+}
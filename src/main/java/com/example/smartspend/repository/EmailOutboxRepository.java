@@ -0,0 +1,50 @@
+package com.example.smartspend.repository;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+import org.springframework.data.domain.Limit;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import com.example.smartspend.entity.EmailOutboxMessage;
+import com.example.smartspend.entity.EmailStatus;
+
+import jakarta.persistence.LockModeType;
+import jakarta.persistence.QueryHint;
+
+@Repository
+public interface EmailOutboxRepository extends JpaRepository<EmailOutboxMessage, Long> {
+    
+    // Locks a batch of due messages: pending ones whose retry time has come, and claimed ones
+    // whose lease ran out. Rows locked by another dispatcher are skipped (-2 = SKIP LOCKED)
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @QueryHints(@QueryHint(name = "jakarta.persistence.lock.timeout", value = "-2"))
+    @Query("SELECT m FROM EmailOutboxMessage m WHERE m.status IN (com.example.smartspend.entity.EmailStatus.PENDING, " +
+           "com.example.smartspend.entity.EmailStatus.IN_PROGRESS) AND m.nextAttemptAt <= :now ORDER BY m.id")
+    List<EmailOutboxMessage> lockDueBatch(@Param("now") LocalDateTime now, Limit limit);
+    
+    // Writes back a claimed message's attempt, unless its lease ran out and another dispatcher
+    // reclaimed it in the meantime; returns 0 in that case
+    @Modifying
+    @Query("UPDATE EmailOutboxMessage m SET m.status = :status, m.nextAttemptAt = :nextAttemptAt, " +
+           "m.lastError = :lastError, m.sentAt = :sentAt WHERE m.id = :id " +
+           "AND m.status = com.example.smartspend.entity.EmailStatus.IN_PROGRESS AND m.nextAttemptAt = :lease")
+    int recordAttempt(@Param("id") Long id,
+                      @Param("lease") LocalDateTime lease,
+                      @Param("status") EmailStatus status,
+                      @Param("nextAttemptAt") LocalDateTime nextAttemptAt,
+                      @Param("lastError") String lastError,
+                      @Param("sentAt") LocalDateTime sentAt);
+    
+    @Query("SELECT m.id FROM EmailOutboxMessage m WHERE m.status = com.example.smartspend.entity.EmailStatus.SENT " +
+           "AND m.sentAt < :cutoff ORDER BY m.id")
+    List<Long> findSentBefore(@Param("cutoff") LocalDateTime cutoff, Limit limit);
+    
+    long countByStatus(EmailStatus status);
+}
@@ -1,46 +1,119 @@
 package com.example.smartspend.repository;
 
 import java.time.LocalDate;
+import java.time.YearMonth;
 import java.util.List;
+import java.util.Optional;
 
+import org.springframework.data.domain.Limit;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import com.example.smartspend.dto.ExpenseAggregate;
+import com.example.smartspend.dto.ExpenseView;
+import com.example.smartspend.dto.MonthlyRollupRow;
 import com.example.smartspend.entity.Category;
 import com.example.smartspend.entity.Expense;
+import com.example.smartspend.entity.Money;
+import com.example.smartspend.entity.TransactionType;
 
 @Repository
 public interface ExpenseRepository extends JpaRepository<Expense, Long> {
     List<Expense> findByUserId(Long userId);
     
+    // Newest first, served from idx_expenses_user_date_id without sorting the history
+    List<Expense> findByUserIdOrderByDateDescIdDesc(Long userId, Limit limit);
+    
+    List<Expense> findByUserIdAndTypeOrderByDateDescIdDesc(Long userId, TransactionType type);
+    
     List<Expense> findByUserIdAndDateBetween(Long userId, LocalDate startDate, LocalDate endDate);
     
     List<Expense> findByUserIdAndCategory(Long userId, Category category);
     
     List<Expense> findByUserIdAndDateBetweenAndCategory(Long userId, LocalDate startDate, LocalDate endDate, Category category);
     
-    List<Expense> findByUserIdAndAmountBetween(Long userId, Double minAmount, Double maxAmount);
+    List<Expense> findByUserIdAndAmountBetween(Long userId, Money minAmount, Money maxAmount);
+    
+    // Read models for the REST API: constructor expressions, so no entities are managed or lazily loaded
+    @Query(ExpenseView.SELECT + "FROM Expense e")
+    List<ExpenseView> findAllViews();
+    
+    @Query(ExpenseView.SELECT + "FROM Expense e WHERE e.user.id = :userId")
+    List<ExpenseView> findViewsByUserId(@Param("userId") Long userId);
     
-    @Query("SELECT e FROM Expense e WHERE e.user.id = :userId AND " +
+    @Query(ExpenseView.SELECT + "FROM Expense e WHERE e.id = :id")
+    Optional<ExpenseView> findViewById(@Param("id") Long id);
+    
+    @Query(ExpenseView.SELECT + "FROM Expense e WHERE e.user.id = :userId AND " +
            "(:startDate IS NULL OR e.date >= :startDate) AND " +
            "(:endDate IS NULL OR e.date <= :endDate) AND " +
            "(:category IS NULL OR e.category = :category) AND " +
            "(:minAmount IS NULL OR e.amount >= :minAmount) AND " +
            "(:maxAmount IS NULL OR e.amount <= :maxAmount)")
-    List<Expense> findFilteredExpenses(@Param("userId") Long userId,
+    List<ExpenseView> findFilteredViews(@Param("userId") Long userId,
                                       @Param("startDate") LocalDate startDate,
                                       @Param("endDate") LocalDate endDate,
                                       @Param("category") Category category,
-                                      @Param("minAmount") Double minAmount,
-                                      @Param("maxAmount") Double maxAmount);
-    
-    @Query("SELECT COALESCE(SUM(e.amount), 0) FROM Expense e WHERE e.user.id = :userId AND e.type = 'EXPENSE' AND e.category = :category AND YEAR(e.date) = :year AND MONTH(e.date) = :month")
-    Double getTotalExpenseByCategoryAndMonth(@Param("userId") Long userId, 
-                                           @Param("category") Category category,
-                                           @Param("year") int year, 
-                                           @Param("month") int month);
+                                      @Param("minAmount") Money minAmount,
+                                      @Param("maxAmount") Money maxAmount);
+    
+    // Keyset page ordered by (date desc, id desc); a null cursor starts from the newest expense
+    @Query(ExpenseView.SELECT + "FROM Expense e WHERE e.user.id = :userId AND " +
+           "(:startDate IS NULL OR e.date >= :startDate) AND " +
+           "(:endDate IS NULL OR e.date <= :endDate) AND " +
+           "(:category IS NULL OR e.category = :category) AND " +
+           "(:minAmount IS NULL OR e.amount >= :minAmount) AND " +
+           "(:maxAmount IS NULL OR e.amount <= :maxAmount) AND " +
+           "(:cursorDate IS NULL OR e.date < :cursorDate OR (e.date = :cursorDate AND e.id < :cursorId)) " +
+           "ORDER BY e.date DESC, e.id DESC")
+    List<ExpenseView> findFilteredPage(@Param("userId") Long userId,
+                                   @Param("startDate") LocalDate startDate,
+                                   @Param("endDate") LocalDate endDate,
+                                   @Param("category") Category category,
+                                   @Param("minAmount") Money minAmount,
+                                   @Param("maxAmount") Money maxAmount,
+                                   @Param("cursorDate") LocalDate cursorDate,
+                                   @Param("cursorId") Long cursorId,
+                                   Limit limit);
+    
+    // Month total as a date-range predicate so (user_id, category, date) can serve it
+    default Long getTotalExpenseByCategoryAndMonth(Long userId, Category category, int year, int month) {
+        YearMonth period = YearMonth.of(year, month);
+        return sumAmountByTypeAndCategory(userId, TransactionType.EXPENSE, category,
+                period.atDay(1), period.atEndOfMonth());
+    }
+    
+    // Aggregates computed by the database - only the resulting numbers are read back.
+    // Sums are over the minor-unit column, so they come back as exact Longs
+    @Query("SELECT new com.example.smartspend.dto.ExpenseAggregate(e.type, e.category, SUM(e.amount), COUNT(e), MIN(e.amount), MAX(e.amount)) " +
+           "FROM Expense e WHERE e.user.id = :userId AND e.date BETWEEN :startDate AND :endDate " +
+           "GROUP BY e.type, e.category")
+    List<ExpenseAggregate> aggregateByTypeAndCategory(@Param("userId") Long userId,
+                                                      @Param("startDate") LocalDate startDate,
+                                                      @Param("endDate") LocalDate endDate);
+    
+    @Query("SELECT COALESCE(SUM(e.amount), 0) FROM Expense e WHERE e.user.id = :userId AND e.type = :type " +
+           "AND e.date BETWEEN :startDate AND :endDate")
+    Long sumAmountByType(@Param("userId") Long userId,
+                         @Param("type") TransactionType type,
+                         @Param("startDate") LocalDate startDate,
+                         @Param("endDate") LocalDate endDate);
+    
+    @Query("SELECT COALESCE(SUM(e.amount), 0) FROM Expense e WHERE e.user.id = :userId AND e.type = :type " +
+           "AND e.category = :category AND e.date BETWEEN :startDate AND :endDate")
+    Long sumAmountByTypeAndCategory(@Param("userId") Long userId,
+                                    @Param("type") TransactionType type,
+                                    @Param("category") Category category,
+                                    @Param("startDate") LocalDate startDate,
+                                    @Param("endDate") LocalDate endDate);
+    
+    // Full recomputation of a user's monthly rollups; used by the rebuild/reconcile job only
+    @Query("SELECT new com.example.smartspend.dto.MonthlyRollupRow(YEAR(e.date), MONTH(e.date), e.category, e.type, SUM(e.amount), COUNT(e)) " +
+           "FROM Expense e WHERE e.user.id = :userId " +
+           "GROUP BY YEAR(e.date), MONTH(e.date), e.category, e.type")
+    List<MonthlyRollupRow> computeMonthlyRollups(@Param("userId") Long userId);
     
     // ADD THIS MISSING METHOD
     List<Expense> findByUserIdAndCategoryAndDateBetween(Long userId, Category category, LocalDate startDate, LocalDate endDate);
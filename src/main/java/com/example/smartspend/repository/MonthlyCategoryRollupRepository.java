@@ -0,0 +1,81 @@
+package com.example.smartspend.repository;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import com.example.smartspend.dto.RollupTypeSummary;
+import com.example.smartspend.entity.Category;
+import com.example.smartspend.entity.MonthlyCategoryRollup;
+import com.example.smartspend.entity.TransactionType;
+
+@Repository
+public interface MonthlyCategoryRollupRepository extends JpaRepository<MonthlyCategoryRollup, Long> {
+    
+    // First key of the two-int advisory locks below, so they can't clash with other lock users
+    int ROLLUP_LOCK_CLASS = 0x726f6c6c;
+    
+    Optional<MonthlyCategoryRollup> findByUserIdAndYearAndMonthAndCategoryAndType(
+            Long userId, Integer year, Integer month, Category category, TransactionType type);
+    
+    List<MonthlyCategoryRollup> findByUserIdAndYearAndMonth(Long userId, Integer year, Integer month);
+    
+    List<MonthlyCategoryRollup> findByUserIdInAndYearAndMonth(Collection<Long> userIds, Integer year, Integer month);
+    
+    // All-time counts and one month's totals per type; scans one row per month and category
+    @Query("SELECT new com.example.smartspend.dto.RollupTypeSummary(r.type, SUM(r.txnCount), " +
+           "SUM(CASE WHEN r.year = :year AND r.month = :month THEN r.totalMinor ELSE 0 END)) " +
+           "FROM MonthlyCategoryRollup r WHERE r.userId = :userId GROUP BY r.type")
+    List<RollupTypeSummary> summarizeByType(@Param("userId") Long userId,
+                                            @Param("year") Integer year,
+                                            @Param("month") Integer month);
+    
+    // Increments the row in place; returns 0 when the row does not exist yet
+    @Modifying(flushAutomatically = true)
+    @Query("UPDATE MonthlyCategoryRollup r SET r.totalMinor = r.totalMinor + :amountMinor, r.txnCount = r.txnCount + :count " +
+           "WHERE r.userId = :userId AND r.year = :year AND r.month = :month AND r.category = :category AND r.type = :type")
+    int applyDelta(@Param("userId") Long userId,
+                   @Param("year") Integer year,
+                   @Param("month") Integer month,
+                   @Param("category") Category category,
+                   @Param("type") TransactionType type,
+                   @Param("amountMinor") Long amountMinor,
+                   @Param("count") Long count);
+    
+    // PostgreSQL only: adds to the row for the key, creating it on first use, in one atomic
+    // statement, so concurrent first writes for a key both succeed. Enums are passed as their codes
+    @Modifying(flushAutomatically = true)
+    @Query(value = "INSERT INTO monthly_category_rollups AS r " +
+           "(user_id, year_value, month_value, category_code, type_code, total_minor, txn_count) " +
+           "VALUES (:userId, :year, :month, :categoryCode, :typeCode, :amountMinor, :count) " +
+           "ON CONFLICT (user_id, year_value, month_value, category_code, type_code) DO UPDATE " +
+           "SET total_minor = r.total_minor + EXCLUDED.total_minor, txn_count = r.txn_count + EXCLUDED.txn_count",
+           nativeQuery = true)
+    int upsertDelta(@Param("userId") Long userId,
+                    @Param("year") Integer year,
+                    @Param("month") Integer month,
+                    @Param("categoryCode") Short categoryCode,
+                    @Param("typeCode") Short typeCode,
+                    @Param("amountMinor") Long amountMinor,
+                    @Param("count") Long count);
+    
+    // PostgreSQL only: transaction-scoped per-user locks. Writers share theirs, a rebuild takes
+    // it exclusively. The key folds the user id into an int; a collision only serializes more
+    @Query(value = "SELECT 1 FROM (SELECT pg_advisory_xact_lock_shared(" + ROLLUP_LOCK_CLASS + ", " +
+           "CAST(:userId % 2147483647 AS integer))) l", nativeQuery = true)
+    Integer lockUserShared(@Param("userId") Long userId);
+    
+    @Query(value = "SELECT 1 FROM (SELECT pg_advisory_xact_lock(" + ROLLUP_LOCK_CLASS + ", " +
+           "CAST(:userId % 2147483647 AS integer))) l", nativeQuery = true)
+    Integer lockUserExclusive(@Param("userId") Long userId);
+    
+    @Modifying
+    @Query("DELETE FROM MonthlyCategoryRollup r WHERE r.userId = :userId")
+    int deleteByUserId(@Param("userId") Long userId);
+}
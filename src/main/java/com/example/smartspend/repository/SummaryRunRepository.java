@@ -0,0 +1,25 @@
+package com.example.smartspend.repository;
+
+import java.util.List;
+import java.util.Optional;
+
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.stereotype.Repository;
+
+import com.example.smartspend.entity.SummaryRun;
+import com.example.smartspend.entity.SummaryRunStatus;
+
+import jakarta.persistence.LockModeType;
+
+@Repository
+public interface SummaryRunRepository extends JpaRepository<SummaryRun, Long> {
+    
+    Optional<SummaryRun> findByYearAndMonth(Integer year, Integer month);
+    
+    // Held for the duration of one chunk so two instances never process the same users
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    Optional<SummaryRun> findWithLockById(Long id);
+    
+    List<SummaryRun> findByStatus(SummaryRunStatus status);
+}
@@ -1,10 +1,18 @@
 package com.example.smartspend.repository;
 
+import java.time.Instant;
+import java.util.List;
 import java.util.Optional;
 
+import org.springframework.data.domain.Limit;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import com.example.smartspend.dto.DataVersion;
+import com.example.smartspend.dto.SummaryRecipient;
 import com.example.smartspend.entity.User;
 
 @Repository
@@ -14,4 +22,25 @@ public interface UserRepository extends JpaRepository<User, Long> {
     boolean existsByEmail(String email);
     
     Optional<User> findByVerificationToken(String verificationToken);
+    
+    @Query("SELECT u.email FROM User u WHERE u.id = :id")
+    Optional<String> findEmailById(@Param("id") Long id);
+    
+    // Rows from before data versioning start at 0
+    @Modifying(flushAutomatically = true)
+    @Query("UPDATE User u SET u.dataVersion = COALESCE(u.dataVersion, 0) + 1, u.dataModifiedAt = :now " +
+           "WHERE u.id = :id")
+    int bumpDataVersion(@Param("id") Long id, @Param("now") Instant now);
+    
+    @Query("SELECT new com.example.smartspend.dto.DataVersion(COALESCE(u.dataVersion, 0), u.dataModifiedAt) " +
+           "FROM User u WHERE u.id = :id")
+    Optional<DataVersion> findDataVersion(@Param("id") Long id);
+    
+    @Query("SELECT u.id FROM User u ORDER BY u.id")
+    List<Long> findAllIds();
+    
+    // Keyset chunk of verified users for bulk jobs
+    @Query("SELECT new com.example.smartspend.dto.SummaryRecipient(u.id, u.email) FROM User u " +
+           "WHERE u.enabled = true AND u.id > :afterId ORDER BY u.id")
+    List<SummaryRecipient> findRecipientsAfter(@Param("afterId") Long afterId, Limit limit);
 }
\ No newline at end of file
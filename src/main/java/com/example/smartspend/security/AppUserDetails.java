@@ -0,0 +1,25 @@
+package com.example.smartspend.security;
+
+import java.util.Collection;
+
+import org.springframework.security.core.GrantedAuthority;
+import org.springframework.security.core.userdetails.User;
+
+/**
+ * UserDetails that also carries the user's id, so code holding a cached principal (see
+ * UserDetailsCache) doesn't need another lookup to find it.
+ */
+public class AppUserDetails extends User {
+    
+    private final Long id;
+    
+    public AppUserDetails(Long id, String email, String password, boolean enabled,
+                          Collection<? extends GrantedAuthority> authorities) {
+        super(email, password, enabled, true, true, true, authorities);
+        this.id = id;
+    }
+    
+    public Long getId() {
+        return id;
+    }
+}
@@ -27,11 +27,11 @@ public class CustomUserDetailsService implements UserDetailsService {
         String role = user.getRole().name();
         List<SimpleGrantedAuthority> authorities = Collections.singletonList(new SimpleGrantedAuthority(role));
         
-        return new org.springframework.security.core.userdetails.User(
+        return new AppUserDetails(
+                user.getId(),
                 user.getEmail(),
                 user.getPassword(),
                 user.isEnabled(),
-                true, true, true,
                 authorities
         );
     }
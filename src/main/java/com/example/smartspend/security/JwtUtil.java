@@ -6,7 +6,9 @@ import javax.crypto.SecretKey;
 
 import org.springframework.stereotype.Component;
 
+import io.jsonwebtoken.Claims;
 import io.jsonwebtoken.JwtException;
+import io.jsonwebtoken.JwtParser;
 import io.jsonwebtoken.Jwts;
 import io.jsonwebtoken.SignatureAlgorithm;
 import io.jsonwebtoken.security.Keys;
@@ -15,11 +17,16 @@ import io.jsonwebtoken.security.Keys;
 public class JwtUtil {
     
     private final SecretKey secretKey;
+    // Immutable and thread-safe; building a parser per call re-does key setup every time
+    private final JwtParser parser;
     private final long expirationMs = 86400000; // 24 hours
     
     public JwtUtil() {
         // In production, use a secure key from configuration
         this.secretKey = Keys.hmacShaKeyFor("mySecretKey123456789012345678901234567890".getBytes());
+        this.parser = Jwts.parserBuilder()
+                .setSigningKey(secretKey)
+                .build();
     }
     
     public String generateToken(String email) {
@@ -32,36 +39,31 @@ public class JwtUtil {
     }
     
     public String extractEmail(String token) {
-        return Jwts.parserBuilder()
-                .setSigningKey(secretKey)
-                .build()
-                .parseClaimsJws(token)
-                .getBody()
-                .getSubject();
+        return parseClaims(token).getSubject();
     }
     
-    public boolean validateToken(String token) {
+    // Single parse: verifies signature and expiry and returns the subject, or null if the token is not valid
+    public String extractValidEmail(String token) {
         try {
-            Jwts.parserBuilder()
-                .setSigningKey(secretKey)
-                .build()
-                .parseClaimsJws(token);
-            return true;
+            return parseClaims(token).getSubject();
         } catch (JwtException | IllegalArgumentException e) {
-            return false;
+            return null;
         }
     }
     
+    public boolean validateToken(String token) {
+        return extractValidEmail(token) != null;
+    }
+    
     public Date extractExpiration(String token) {
-        return Jwts.parserBuilder()
-                .setSigningKey(secretKey)
-                .build()
-                .parseClaimsJws(token)
-                .getBody()
-                .getExpiration();
+        return parseClaims(token).getExpiration();
     }
     
     public boolean isTokenExpired(String token) {
         return extractExpiration(token).before(new Date());
     }
+    
+    private Claims parseClaims(String token) {
+        return parser.parseClaimsJws(token).getBody();
+    }
 }
\ No newline at end of file
@@ -0,0 +1,71 @@
+package com.example.smartspend.security;
+
+import java.time.Duration;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.security.core.userdetails.UserDetails;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+
+import jakarta.annotation.PostConstruct;
+
+/**
+ * Bounded, time-limited cache of UserDetails keyed by email (the JWT subject), so an
+ * authenticated request doesn't hit the database to load its principal. Entries expire
+ * after app.security.user-cache.ttl-seconds; changes made through UserService evict
+ * the affected entries straight away.
+ */
+@Component
+public class UserDetailsCache {
+    
+    @Autowired
+    private CustomUserDetailsService userDetailsService;
+    
+    @Value("${app.security.user-cache.ttl-seconds:60}")
+    private long ttlSeconds;
+    
+    @Value("${app.security.user-cache.max-size:10000}")
+    private long maxSize;
+    
+    private Cache<String, UserDetails> cache;
+    
+    @PostConstruct
+    void init() {
+        cache = Caffeine.newBuilder()
+                .maximumSize(maxSize)
+                .expireAfterWrite(Duration.ofSeconds(ttlSeconds))
+                .build();
+    }
+    
+    // Throws UsernameNotFoundException like the underlying service; misses are not cached
+    public UserDetails load(String email) {
+        return cache.get(email, userDetailsService::loadUserByUsername);
+    }
+    
+    // Evicts now and, inside a transaction, again after commit so a concurrent request
+    // can't re-cache the pre-update row while the change is still uncommitted
+    public void evict(String... emails) {
+        evictNow(emails);
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    evictNow(emails);
+                }
+            });
+        }
+    }
+    
+    private void evictNow(String... emails) {
+        for (String email : emails) {
+            if (email != null) {
+                cache.invalidate(email);
+            }
+        }
+    }
+}
@@ -0,0 +1,136 @@
+package com.example.smartspend.service;
+
+import java.time.YearMonth;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.slf4j.MDC;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.example.smartspend.config.RequestCorrelationFilter;
+import com.example.smartspend.entity.Category;
+import com.example.smartspend.entity.TransactionType;
+
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+
+/**
+ * Evaluates budget alerts off the request thread once the expense or budget write has committed.
+ *
+ * Work is coalesced per (user, category, month): while an evaluation for a key is queued or
+ * running, further changes only mark it dirty, and a running evaluation re-runs once at the
+ * end if it was marked. A burst of N inserts therefore costs at most two evaluations.
+ * The queue is bounded; when it is full the publishing thread runs the evaluation itself,
+ * which slows producers down instead of dropping alerts. That thread is inside an afterCommit
+ * callback, where a joined transaction would never commit, so every evaluation runs in a
+ * transaction of its own.
+ */
+@Component
+public class BudgetAlertDispatcher {
+    
+    private static final Logger log = LoggerFactory.getLogger(BudgetAlertDispatcher.class);
+    
+    public record AlertKey(Long userId, Category category, YearMonth period) {}
+    
+    @Autowired
+    private BudgetService budgetService;
+    
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+    
+    @Value("${app.alerts.worker-threads:2}")
+    private int workerThreads;
+    
+    @Value("${app.alerts.queue-capacity:1000}")
+    private int queueCapacity;
+    
+    // Present = queued or running; TRUE = another change arrived since the evaluation started
+    private final ConcurrentMap<AlertKey, Boolean> pending = new ConcurrentHashMap<>();
+    
+    private ThreadPoolExecutor executor;
+    
+    private TransactionTemplate newTransaction;
+    
+    @PostConstruct
+    public void start() {
+        newTransaction = new TransactionTemplate(transactionManager);
+        newTransaction.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+        AtomicInteger threadNumber = new AtomicInteger();
+        executor = new ThreadPoolExecutor(workerThreads, workerThreads, 0L, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(queueCapacity),
+                runnable -> {
+                    Thread thread = new Thread(runnable, "budget-alert-" + threadNumber.incrementAndGet());
+                    thread.setDaemon(true);
+                    return thread;
+                },
+                new ThreadPoolExecutor.CallerRunsPolicy());
+    }
+    
+    @PreDestroy
+    public void stop() throws InterruptedException {
+        executor.shutdown();
+        executor.awaitTermination(10, TimeUnit.SECONDS);
+    }
+    
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT)
+    public void onExpenseChanged(ExpenseChangedEvent event) {
+        if (event.type() == TransactionType.EXPENSE) {
+            submit(new AlertKey(event.userId(), event.category(), event.period()));
+        }
+    }
+    
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT)
+    public void onBudgetChanged(BudgetChangedEvent event) {
+        submit(new AlertKey(event.userId(), event.category(), event.period()));
+    }
+    
+    public void submit(AlertKey key) {
+        boolean[] scheduled = {false};
+        pending.compute(key, (k, dirty) -> {
+            if (dirty == null) {
+                scheduled[0] = true;
+                return Boolean.FALSE;
+            }
+            return Boolean.TRUE;
+        });
+        
+        if (scheduled[0]) {
+            executor.execute(() -> drain(key));
+        }
+    }
+    
+    public int getQueueDepth() {
+        return executor.getQueue().size();
+    }
+    
+    private void drain(AlertKey key) {
+        while (true) {
+            // Worker threads don't inherit the request's MDC; tag the user explicitly
+            try (MDC.MDCCloseable ignored = MDC.putCloseable(RequestCorrelationFilter.USER_ID_KEY, key.userId().toString())) {
+                newTransaction.executeWithoutResult(status -> budgetService.evaluateBudgetAlert(key.userId(),
+                        key.category(), key.period().getYear(), key.period().getMonthValue()));
+            } catch (RuntimeException e) {
+                log.error("Error evaluating budget alert for {}", key, e);
+            }
+            
+            // Done unless a change arrived while evaluating; in that case clear the flag and go again
+            if (pending.remove(key, Boolean.FALSE)) {
+                return;
+            }
+            pending.replace(key, Boolean.TRUE, Boolean.FALSE);
+        }
+    }
+}
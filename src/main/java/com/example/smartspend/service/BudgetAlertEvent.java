@@ -0,0 +1,22 @@
+package com.example.smartspend.service;
+
+import java.time.YearMonth;
+
+import com.example.smartspend.entity.BudgetAlertState;
+import com.example.smartspend.entity.Category;
+import com.example.smartspend.entity.Money;
+
+/**
+ * Published when a budget's alert state changes, in either direction. Upward transitions
+ * also queue an alert email; listeners see every transition.
+ */
+public record BudgetAlertEvent(
+        Long userId,
+        Long budgetId,
+        Category category,
+        YearMonth period,
+        BudgetAlertState state,
+        Money budgetAmount,
+        Money spent,
+        double utilization) {
+}
@@ -0,0 +1,15 @@
+package com.example.smartspend.service;
+
+import java.time.YearMonth;
+
+import com.example.smartspend.entity.Category;
+
+/**
+ * Published when a budget is created, deleted, or updated in a way that can change its
+ * utilization (amount, category or period), so its alert state is re-evaluated for the new values.
+ */
+public record BudgetChangedEvent(
+        Long userId,
+        Category category,
+        YearMonth period) {
+}
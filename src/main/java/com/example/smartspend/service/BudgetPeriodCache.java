@@ -0,0 +1,73 @@
+package com.example.smartspend.service;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.function.Supplier;
+
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import com.example.smartspend.entity.Budget;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import jakarta.annotation.PostConstruct;
+
+/**
+ * Read-through cache of a user's budgets for one month, shared by the period endpoints and
+ * the per-expense alert check. Budgets change only through BudgetService, which evicts the
+ * affected periods; the TTL is a backstop. Cached budgets are detached and must be treated
+ * as read-only.
+ */
+@Component
+public class BudgetPeriodCache {
+    
+    private record PeriodKey(Long userId, int month, int year) {}
+    
+    @Autowired
+    private ObjectProvider<MeterRegistry> meterRegistry;
+    
+    @Value("${app.budgets.cache.ttl-seconds:600}")
+    private long ttlSeconds;
+    
+    @Value("${app.budgets.cache.max-size:10000}")
+    private long maxSize;
+    
+    private Cache<PeriodKey, List<Budget>> cache;
+    
+    @PostConstruct
+    void init() {
+        cache = Caffeine.newBuilder()
+                .maximumSize(maxSize)
+                .expireAfterWrite(Duration.ofSeconds(ttlSeconds))
+                .recordStats()
+                .build();
+        // smartspend.budgets.cache gets cache.gets{result=hit|miss}, cache.size and cache.evictions
+        meterRegistry.ifAvailable(registry -> CaffeineCacheMetrics.monitor(registry, cache, "smartspend.budgets"));
+    }
+    
+    public List<Budget> get(Long userId, int month, int year, Supplier<List<Budget>> loader) {
+        return cache.get(new PeriodKey(userId, month, year), key -> List.copyOf(loader.get()));
+    }
+    
+    // Evicts now and, inside a transaction, again after commit so a concurrent read can't
+    // re-cache the old rows while the change is still uncommitted
+    public void evict(Long userId, int month, int year) {
+        PeriodKey key = new PeriodKey(userId, month, year);
+        cache.invalidate(key);
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    cache.invalidate(key);
+                }
+            });
+        }
+    }
+}
@@ -1,29 +1,45 @@
 package com.example.smartspend.service;
 
+import java.time.YearMonth;
 import java.util.List;
+import java.util.Objects;
 import java.util.Optional;
 
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.ObjectProvider;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.lang.NonNull;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
+import com.example.smartspend.dto.BudgetView;
 import com.example.smartspend.entity.Budget;
+import com.example.smartspend.entity.BudgetAlertState;
 import com.example.smartspend.entity.Category;
 import com.example.smartspend.entity.Expense;
+import com.example.smartspend.entity.Money;
+import com.example.smartspend.entity.TransactionType;
 import com.example.smartspend.entity.User;
 import com.example.smartspend.repository.BudgetRepository;
-import com.example.smartspend.repository.ExpenseRepository;
+
+import io.micrometer.core.annotation.Timed;
+import io.micrometer.core.instrument.MeterRegistry;
 
 @Service
+@Timed(value = "smartspend.service", histogram = true)
 @Transactional
 public class BudgetService {
     
+    private static final Logger log = LoggerFactory.getLogger(BudgetService.class);
+    
     @Autowired
     private BudgetRepository budgetRepository;
     
     @Autowired
-    private ExpenseRepository expenseRepository;
+    private ExpenseRollupService rollupService;
     
     @Autowired
     private UserService userService;
@@ -31,12 +47,42 @@ public class BudgetService {
     @Autowired
     private EmailService emailService;
     
-    public List<Budget> getAllBudgets() {
-        return budgetRepository.findAll();
+    @Autowired
+    private BudgetPeriodCache periodCache;
+    
+    @Autowired
+    private DashboardService dashboardService;
+    
+    @Autowired
+    private DataVersionService dataVersionService;
+    
+    @Autowired
+    private ApplicationEventPublisher eventPublisher;
+    
+    @Autowired
+    private ObjectProvider<MeterRegistry> meterRegistry;
+    
+    @Value("${app.alerts.warning-threshold:80}")
+    private double warningThreshold;
+    
+    @Value("${app.alerts.exceeded-threshold:100}")
+    private double exceededThreshold;
+    
+    // Reads below return BudgetView read models rather than managed entities
+    @Transactional(readOnly = true)
+    public List<BudgetView> getAllBudgets() {
+        return budgetRepository.findAllViews();
+    }
+    
+    @Transactional(readOnly = true)
+    public List<BudgetView> getUserBudgets(@NonNull Long userId) {
+        return budgetRepository.findViewsByUserId(userId);
     }
     
-    public List<Budget> getUserBudgets(@NonNull Long userId) {
-        return budgetRepository.findByUserId(userId);
+    @Transactional(readOnly = true)
+    public BudgetView getBudgetView(@NonNull Long id) {
+        return budgetRepository.findViewById(id)
+                .orElseThrow(() -> new RuntimeException("Budget not found with id: " + id));
     }
     
     public Budget getBudgetById(@NonNull Long id) {
@@ -54,7 +100,14 @@ public class BudgetService {
         }
         
         budget.setUser(user);
-        return budgetRepository.save(budget);
+        Budget savedBudget = budgetRepository.save(budget);
+        periodCache.evict(userId, savedBudget.getMonth(), savedBudget.getYear());
+        dashboardService.evict(userId);
+        dataVersionService.bump(userId);
+        // Spending may already be past a threshold of the new budget
+        eventPublisher.publishEvent(new BudgetChangedEvent(userId, savedBudget.getCategory(),
+                YearMonth.of(savedBudget.getYear(), savedBudget.getMonth())));
+        return savedBudget;
     }
     
     public Budget updateBudget(@NonNull Long userId, @NonNull Long budgetId, @NonNull Budget budgetDetails) {
@@ -64,12 +117,32 @@ public class BudgetService {
             throw new RuntimeException("Access denied");
         }
         
+        // Alert state only describes the period it was reached in
+        boolean periodChanged = budget.getCategory() != budgetDetails.getCategory()
+                || !budget.getMonth().equals(budgetDetails.getMonth())
+                || !budget.getYear().equals(budgetDetails.getYear());
+        if (periodChanged) {
+            budget.setAlertState(BudgetAlertState.NONE);
+        }
+        boolean amountChanged = !Objects.equals(budget.getAmount(), budgetDetails.getAmount());
+        
+        periodCache.evict(userId, budget.getMonth(), budget.getYear());
+        periodCache.evict(userId, budgetDetails.getMonth(), budgetDetails.getYear());
+        dashboardService.evict(userId);
+        dataVersionService.bump(userId);
+        
         budget.setAmount(budgetDetails.getAmount());
         budget.setCategory(budgetDetails.getCategory());
         budget.setMonth(budgetDetails.getMonth());
         budget.setYear(budgetDetails.getYear());
         
-        return budgetRepository.save(budget);
+        Budget savedBudget = budgetRepository.save(budget);
+        // Lowering the amount below current spend alerts; raising it re-arms the alert
+        if (periodChanged || amountChanged) {
+            eventPublisher.publishEvent(new BudgetChangedEvent(userId, savedBudget.getCategory(),
+                    YearMonth.of(savedBudget.getYear(), savedBudget.getMonth())));
+        }
+        return savedBudget;
     }
     
     public void deleteBudget(@NonNull Long userId, @NonNull Long budgetId) {
@@ -80,25 +153,45 @@ public class BudgetService {
         }
         
         budgetRepository.delete(budget);
+        periodCache.evict(userId, budget.getMonth(), budget.getYear());
+        dashboardService.evict(userId);
+        dataVersionService.bump(userId);
+        // Listeners see the period without a budget; a queued evaluation of it finds nothing to do
+        eventPublisher.publishEvent(new BudgetChangedEvent(userId, budget.getCategory(),
+                YearMonth.of(budget.getYear(), budget.getMonth())));
     }
     
     // Get budgets by category
-    public List<Budget> getBudgetsByCategory(@NonNull String categoryString) {
+    @Transactional(readOnly = true)
+    public List<BudgetView> getBudgetsByCategory(@NonNull String categoryString) {
         try {
             // Convert String to Category enum
             Category category = Category.valueOf(categoryString.toUpperCase());
-            return budgetRepository.findByCategory(category);
+            return budgetRepository.findViewsByCategory(category);
         } catch (IllegalArgumentException e) {
             throw new RuntimeException("Invalid category: " + categoryString);
         }
     }
     
+    // Served from BudgetPeriodCache; the returned budgets are detached snapshots. A failed
+    // lookup leaves the caller's transaction committable
+    @Transactional(readOnly = true, noRollbackFor = RuntimeException.class)
     public List<Budget> getBudgetsByUserIdAndMonthAndYear(@NonNull Long userId, @NonNull Integer month, @NonNull Integer year) {
-        return budgetRepository.findByUserIdAndMonthAndYear(userId, month, year);
+        return periodCache.get(userId, month, year,
+                () -> budgetRepository.findByUserIdAndMonthAndYear(userId, month, year));
+    }
+    
+    // The cached period snapshot, as read models
+    public List<BudgetView> getPeriodBudgetViews(@NonNull Long userId, @NonNull Integer month, @NonNull Integer year) {
+        return getBudgetsByUserIdAndMonthAndYear(userId, month, year).stream()
+                .map(BudgetView::of)
+                .toList();
     }
     
-    public Double getTotalBudgetAmountByUserAndMonth(@NonNull Long userId, @NonNull Integer month, @NonNull Integer year) {
-        return budgetRepository.getTotalBudgetAmountByUserAndMonth(userId, month, year);
+    public Money getTotalBudgetAmountByUserAndMonth(@NonNull Long userId, @NonNull Integer month, @NonNull Integer year) {
+        return Money.ofMinor(getBudgetsByUserIdAndMonthAndYear(userId, month, year).stream()
+                .mapToLong(budget -> budget.getAmount().minorUnits())
+                .sum());
     }
     
     public boolean existsByUserIdAndCategoryAndMonthAndYear(@NonNull Long userId, @NonNull String categoryString, 
@@ -130,7 +223,7 @@ public class BudgetService {
                                                                  @NonNull Integer month, @NonNull Integer year) {
         try {
             Category category = Category.valueOf(categoryString.toUpperCase());
-            return budgetRepository.findByUserIdAndCategoryAndMonthAndYear(userId, category, month, year);
+            return findPeriodBudget(userId, category, month, year);
         } catch (IllegalArgumentException e) {
             throw new RuntimeException("Invalid category: " + categoryString);
         }
@@ -138,64 +231,93 @@ public class BudgetService {
     
     // BUDGET ALERTS METHOD - ADD THIS METHOD
     public void checkBudgetAlerts(@NonNull Long userId, @NonNull Expense expense) {
-        try {
-            // Only check for expense transactions (not income)
-            if (!expense.getType().name().equals("EXPENSE")) {
+        // Only check for expense transactions (not income)
+        if (!expense.getType().name().equals("EXPENSE")) {
+            return;
+        }
+        
+        evaluateBudgetAlert(userId, expense.getCategory(),
+                expense.getDate().getYear(), expense.getDate().getMonthValue());
+    }
+    
+    // Evaluates the month-to-date utilization of one budget; called by BudgetAlertDispatcher after
+    // commit. Failures propagate to the dispatcher, which logs them, so this transaction rolls back
+    public void evaluateBudgetAlert(@NonNull Long userId, @NonNull Category category, int year, int month) {
+        // Get budget for this category and period
+        Optional<Budget> budgetOpt = findPeriodBudget(userId, category, month, year);
+        if (budgetOpt.isEmpty() || !budgetOpt.get().getAmount().isPositive()) {
+            return;
+        }
+        Budget budget = budgetOpt.get();
+        
+        // Month-to-date spend comes from the maintained rollup row
+        Money totalSpent = rollupService.getTotal(userId, category, TransactionType.EXPENSE, year, month);
+        double utilization = totalSpent.percentOf(budget.getAmount());
+        BudgetAlertState next = alertStateFor(utilization);
+        
+        // From the stored state, not the cached snapshot's. Losing the transition means a
+        // concurrent evaluation moved it first; re-read once and go from there
+        BudgetAlertState current = budgetRepository.findAlertStateById(budget.getId()).orElse(next);
+        if (next != current && budgetRepository.transitionAlertState(budget.getId(), current, next) == 0) {
+            current = budgetRepository.findAlertStateById(budget.getId()).orElse(next);
+            if (next != current && budgetRepository.transitionAlertState(budget.getId(), current, next) == 0) {
                 return;
             }
-            
-            int month = expense.getDate().getMonthValue();
-            int year = expense.getDate().getYear();
-            
-            // Get budget for this category and period
-            Optional<Budget> budgetOpt = findByUserIdAndCategoryAndMonthAndYear(
-                    userId, expense.getCategory().name(), month, year);
-            
-            if (budgetOpt.isPresent()) {
-                Budget budget = budgetOpt.get();
-                
-                // Use the repository method to get total expenses for this category and month
-                Double totalSpent = expenseRepository.getTotalExpenseByCategoryAndMonth(
-                        userId, expense.getCategory(), year, month);
-                
-                if (totalSpent != null && budget.getAmount() > 0) {
-                    double utilization = (totalSpent / budget.getAmount()) * 100;
-                    
-                    User user = userService.findById(userId);
-                    
-                    // Send alerts based on utilization
-                    if (utilization >= 80 && utilization < 100) {
-                        // Budget warning (80-99% utilized)
-                        System.out.println("=== BUDGET WARNING ALERT ===");
-                        System.out.println("User: " + user.getEmail());
-                        System.out.println("Category: " + budget.getCategory());
-                        System.out.println("Budget: $" + budget.getAmount());
-                        System.out.println("Spent: $" + totalSpent);
-                        System.out.println("Utilization: " + String.format("%.1f", utilization) + "%");
-                        System.out.println("============================");
-                        
-                        // Send email alert
-                        emailService.sendBudgetWarningEmail(user.getEmail(), budget, utilization);
-                        
-                    } else if (utilization >= 100) {
-                        // Budget exceeded (100%+ utilized)
-                        System.out.println("=== BUDGET EXCEEDED ALERT ===");
-                        System.out.println("User: " + user.getEmail());
-                        System.out.println("Category: " + budget.getCategory());
-                        System.out.println("Budget: $" + budget.getAmount());
-                        System.out.println("Spent: $" + totalSpent);
-                        System.out.println("Utilization: " + String.format("%.1f", utilization) + "%");
-                        System.out.println("Overspent: $" + String.format("%.2f", (totalSpent - budget.getAmount())));
-                        System.out.println("=============================");
-                        
-                        // Send email alert
-                        emailService.sendBudgetExceededEmail(user.getEmail(), budget, utilization);
-                    }
-                }
-            }
-        } catch (Exception e) {
-            System.err.println("Error checking budget alerts: " + e.getMessage());
-            e.printStackTrace();
         }
+        // Steady state: nothing crossed, no mail work at all
+        if (next == current) {
+            return;
+        }
+        
+        periodCache.evict(userId, month, year);
+        // alertState is part of the budget lists
+        dataVersionService.bump(userId);
+        eventPublisher.publishEvent(new BudgetAlertEvent(userId, budget.getId(), category,
+                YearMonth.of(year, month), next, budget.getAmount(), totalSpent, utilization));
+        
+        // Falling back below a threshold just re-arms the alert
+        if (next.compareTo(current) < 0) {
+            return;
+        }
+        
+        User user = userService.findById(userId);
+        
+        // One structured event per alert; fields become JSON keys
+        String level = next == BudgetAlertState.WARNED ? "warning" : "exceeded";
+        log.atWarn()
+                .addKeyValue("alert", level)
+                .addKeyValue("category", budget.getCategory())
+                .addKeyValue("budget", budget.getAmount())
+                .addKeyValue("spent", totalSpent)
+                .addKeyValue("utilization", Math.round(utilization * 10) / 10.0)
+                .log("Budget {} threshold reached", level);
+        countAlert(level);
+        
+        // Send email alert
+        if (next == BudgetAlertState.WARNED) {
+            emailService.sendBudgetWarningEmail(user.getEmail(), budget, utilization);
+        } else {
+            emailService.sendBudgetExceededEmail(user.getEmail(), budget, utilization);
+        }
+    }
+    
+    private void countAlert(String level) {
+        meterRegistry.ifAvailable(registry -> registry.counter("smartspend.budget.alerts", "level", level).increment());
+    }
+    
+    private Optional<Budget> findPeriodBudget(Long userId, Category category, int month, int year) {
+        return getBudgetsByUserIdAndMonthAndYear(userId, month, year).stream()
+                .filter(budget -> budget.getCategory() == category)
+                .findFirst();
+    }
+    
+    private BudgetAlertState alertStateFor(double utilization) {
+        if (utilization >= exceededThreshold) {
+            return BudgetAlertState.EXCEEDED;
+        }
+        if (utilization >= warningThreshold) {
+            return BudgetAlertState.WARNED;
+        }
+        return BudgetAlertState.NONE;
     }
-}
\ No newline at end of file
+}
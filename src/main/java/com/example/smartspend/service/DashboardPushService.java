@@ -0,0 +1,214 @@
+package com.example.smartspend.service;
+
+import java.time.YearMonth;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.event.EventListener;
+import org.springframework.messaging.simp.SimpMessagingTemplate;
+import org.springframework.messaging.simp.user.SimpUserRegistry;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import com.example.smartspend.dto.BudgetAlertNotice;
+import com.example.smartspend.dto.TotalsDelta;
+import com.example.smartspend.entity.Budget;
+import com.example.smartspend.entity.Category;
+import com.example.smartspend.entity.Money;
+import com.example.smartspend.entity.TransactionType;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+
+/**
+ * Pushes live dashboard updates to connected users over STOMP.
+ *
+ * Totals: every {@link ExpenseChangedEvent} of a transaction is folded into one delta per
+ * (period, category, type). Just before commit the committed month total and budget
+ * utilization are read for each key (one indexed rollup lookup each; budgets come from
+ * BudgetPeriodCache), and after commit the whole batch goes out as a single message, so a
+ * write or a bulk import costs one push. Users without an open session are skipped before
+ * any of that work.
+ *
+ * Alerts: each {@link BudgetAlertEvent} is forwarded once its transaction commits.
+ */
+@Component
+public class DashboardPushService {
+
+    private static final Logger log = LoggerFactory.getLogger(DashboardPushService.class);
+
+    public static final String TOTALS_QUEUE = "/queue/totals";
+    public static final String ALERTS_QUEUE = "/queue/alerts";
+
+    private record DeltaKey(Long userId, YearMonth period, Category category, TransactionType type) {}
+
+    private static final class PendingDelta {
+        long amountMinor;
+        long count;
+        TotalsDelta resolved;
+    }
+
+    @Autowired
+    private SimpMessagingTemplate messagingTemplate;
+
+    @Autowired
+    private SimpUserRegistry userRegistry;
+
+    @Autowired
+    private ExpenseRollupService rollupService;
+
+    @Autowired
+    private BudgetService budgetService;
+
+    @Autowired
+    private ObjectProvider<MeterRegistry> meterRegistry;
+
+    @PostConstruct
+    void init() {
+        meterRegistry.ifAvailable(registry ->
+                registry.gauge("smartspend.dashboard.users", userRegistry, SimpUserRegistry::getUserCount));
+    }
+
+    @EventListener
+    public void onExpenseChanged(ExpenseChangedEvent event) {
+        if (!isConnected(event.userId())) {
+            return;
+        }
+
+        DeltaKey key = new DeltaKey(event.userId(), event.period(), event.category(), event.type());
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            PendingDelta delta = new PendingDelta();
+            delta.amountMinor = event.amountDeltaMinor();
+            delta.count = event.countDelta();
+            Map<DeltaKey, PendingDelta> single = Map.of(key, delta);
+            try {
+                resolve(single);
+            } catch (RuntimeException e) {
+                skipped(e);
+                return;
+            }
+            send(single);
+            return;
+        }
+
+        PendingDelta delta = batchForTransaction().computeIfAbsent(key, k -> new PendingDelta());
+        delta.amountMinor += event.amountDeltaMinor();
+        delta.count += event.countDelta();
+    }
+
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT, fallbackExecution = true)
+    public void onBudgetAlert(BudgetAlertEvent event) {
+        if (!isConnected(event.userId())) {
+            return;
+        }
+
+        BudgetAlertNotice notice = new BudgetAlertNotice(event.budgetId(), event.period().toString(),
+                event.category(), event.state(), event.budgetAmount(), event.spent(),
+                round(event.utilization()));
+        push(event.userId(), ALERTS_QUEUE, notice, "alert");
+    }
+
+    private boolean isConnected(Long userId) {
+        return userRegistry.getUser(userId.toString()) != null;
+    }
+
+    // One batch per transaction, bound as a transaction resource and flushed by its synchronization
+    @SuppressWarnings("unchecked")
+    private Map<DeltaKey, PendingDelta> batchForTransaction() {
+        Map<DeltaKey, PendingDelta> batch = (Map<DeltaKey, PendingDelta>) TransactionSynchronizationManager.getResource(this);
+        if (batch != null) {
+            return batch;
+        }
+
+        Map<DeltaKey, PendingDelta> created = new LinkedHashMap<>();
+        TransactionSynchronizationManager.bindResource(this, created);
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void beforeCommit(boolean readOnly) {
+                // Still inside the transaction: its own rollup updates are visible and their rows locked.
+                // An exception here would roll back the user's write, so a failed read only drops the push
+                try {
+                    resolve(created);
+                } catch (RuntimeException e) {
+                    created.clear();
+                    skipped(e);
+                }
+            }
+
+            @Override
+            public void afterCommit() {
+                send(created);
+            }
+
+            @Override
+            public void afterCompletion(int status) {
+                TransactionSynchronizationManager.unbindResourceIfPossible(DashboardPushService.this);
+            }
+        });
+        return created;
+    }
+
+    private void resolve(Map<DeltaKey, PendingDelta> batch) {
+        for (Map.Entry<DeltaKey, PendingDelta> entry : batch.entrySet()) {
+            DeltaKey key = entry.getKey();
+            PendingDelta delta = entry.getValue();
+            int year = key.period().getYear();
+            int month = key.period().getMonthValue();
+
+            Money monthTotal = rollupService.getTotal(key.userId(), key.category(), key.type(), year, month);
+            Money budgetAmount = null;
+            Double utilization = null;
+            if (key.type() == TransactionType.EXPENSE) {
+                Budget budget = budgetService.getBudgetsByUserIdAndMonthAndYear(key.userId(), month, year).stream()
+                        .filter(candidate -> candidate.getCategory() == key.category())
+                        .findFirst()
+                        .orElse(null);
+                if (budget != null && budget.getAmount().isPositive()) {
+                    budgetAmount = budget.getAmount();
+                    utilization = round(monthTotal.percentOf(budgetAmount));
+                }
+            }
+
+            delta.resolved = new TotalsDelta(key.period().toString(), key.category(), key.type(),
+                    Money.ofMinor(delta.amountMinor), delta.count, monthTotal, budgetAmount, utilization);
+        }
+    }
+
+    private void send(Map<DeltaKey, PendingDelta> batch) {
+        Map<Long, List<TotalsDelta>> byUser = new LinkedHashMap<>();
+        batch.forEach((key, delta) -> {
+            if (delta.resolved != null) {
+                byUser.computeIfAbsent(key.userId(), userId -> new ArrayList<>()).add(delta.resolved);
+            }
+        });
+        byUser.forEach((userId, deltas) -> push(userId, TOTALS_QUEUE, deltas, "totals"));
+    }
+
+    // Runs after commit; a failed push must never surface as a failed write
+    private void push(Long userId, String destination, Object payload, String kind) {
+        try {
+            messagingTemplate.convertAndSendToUser(userId.toString(), destination, payload);
+            meterRegistry.ifAvailable(registry -> registry.counter("smartspend.dashboard.pushes", "kind", kind).increment());
+        } catch (RuntimeException e) {
+            log.warn("Dashboard push to {} failed for user {}", destination, userId, e);
+        }
+    }
+
+    private void skipped(RuntimeException e) {
+        log.warn("Dashboard totals could not be resolved; skipping the push", e);
+        meterRegistry.ifAvailable(registry -> registry.counter("smartspend.dashboard.push.failures", "stage", "resolve").increment());
+    }
+
+    private static double round(double value) {
+        return Math.round(value * 100) / 100.0;
+    }
+}
@@ -0,0 +1,146 @@
+package com.example.smartspend.service;
+
+import java.time.Duration;
+import java.time.YearMonth;
+import java.util.List;
+
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.lang.NonNull;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import com.example.smartspend.dto.BudgetDashboard;
+import com.example.smartspend.dto.BudgetSummary;
+import com.example.smartspend.dto.BudgetUtilization;
+import com.example.smartspend.dto.ExpenseDashboard;
+import com.example.smartspend.dto.ExpenseView;
+import com.example.smartspend.entity.Money;
+import com.example.smartspend.repository.BudgetRepository;
+import com.example.smartspend.repository.MonthlyCategoryRollupRepository;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+
+import io.micrometer.core.annotation.Timed;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import jakarta.annotation.PostConstruct;
+
+/**
+ * Everything the server-rendered expense and budget pages show, built from the monthly
+ * rollups and budget tables rather than from raw expenses, so render cost does not grow with
+ * a user's history:
+ * - expenses page: one grouped rollup query plus one bounded keyset page of recent rows
+ * - budgets page: one aggregate over budgets plus one budget-to-rollup join for utilization
+ *
+ * Results are cached per user and month for a short TTL. Expense writes evict after commit;
+ * budget writes call {@link #evict(Long)}.
+ */
+@Service
+@Timed(value = "smartspend.service", histogram = true)
+public class DashboardService {
+
+    private record DashboardKey(Long userId, YearMonth period) {}
+
+    @Autowired
+    private MonthlyCategoryRollupRepository rollupRepository;
+
+    @Autowired
+    private BudgetRepository budgetRepository;
+
+    @Autowired
+    private ExpenseService expenseService;
+
+    @Autowired
+    private ObjectProvider<MeterRegistry> meterRegistry;
+
+    @Value("${app.dashboard.recent-expenses:50}")
+    private int recentExpenses;
+
+    @Value("${app.dashboard.cache.ttl-seconds:30}")
+    private long ttlSeconds;
+
+    @Value("${app.dashboard.cache.max-size:10000}")
+    private long maxSize;
+
+    private Cache<DashboardKey, ExpenseDashboard> expenseDashboards;
+
+    private Cache<DashboardKey, BudgetDashboard> budgetDashboards;
+
+    @PostConstruct
+    void init() {
+        expenseDashboards = newCache();
+        budgetDashboards = newCache();
+        meterRegistry.ifAvailable(registry -> {
+            CaffeineCacheMetrics.monitor(registry, expenseDashboards, "smartspend.dashboard.expenses");
+            CaffeineCacheMetrics.monitor(registry, budgetDashboards, "smartspend.dashboard.budgets");
+        });
+    }
+
+    @Transactional(readOnly = true)
+    public ExpenseDashboard getExpenseDashboard(@NonNull Long userId) {
+        YearMonth period = YearMonth.now();
+        return expenseDashboards.get(new DashboardKey(userId, period), key -> {
+            List<ExpenseView> recent = expenseService.getExpensePage(userId, null, null, null, null, null,
+                    null, recentExpenses).items();
+            return ExpenseDashboard.from(recent,
+                    rollupRepository.summarizeByType(userId, period.getYear(), period.getMonthValue()));
+        });
+    }
+
+    @Transactional(readOnly = true)
+    public BudgetDashboard getBudgetDashboard(@NonNull Long userId) {
+        YearMonth period = YearMonth.now();
+        return budgetDashboards.get(new DashboardKey(userId, period), key -> {
+            BudgetSummary summary = budgetRepository.summarize(userId, period.getMonthValue(), period.getYear());
+            List<BudgetUtilization> current = budgetRepository.findPeriodUtilization(
+                    userId, period.getMonthValue(), period.getYear());
+            return new BudgetDashboard(current, summary.budgetCount(), Money.ofMinor(summary.totalMinor()),
+                    summary.activeBudgets());
+        });
+    }
+
+    // Single budget with its period's spend; one indexed join, not cached
+    @Transactional(readOnly = true)
+    public BudgetUtilization getBudgetUtilization(@NonNull Long budgetId) {
+        return budgetRepository.findUtilizationById(budgetId)
+                .orElseThrow(() -> new RuntimeException("Budget not found with id: " + budgetId));
+    }
+
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT, fallbackExecution = true)
+    public void onExpenseChanged(ExpenseChangedEvent event) {
+        invalidate(event.userId());
+    }
+
+    // Evicts now and, inside a transaction, again after commit (same reasoning as BudgetPeriodCache)
+    public void evict(@NonNull Long userId) {
+        invalidate(userId);
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    invalidate(userId);
+                }
+            });
+        }
+    }
+
+    private void invalidate(Long userId) {
+        DashboardKey key = new DashboardKey(userId, YearMonth.now());
+        expenseDashboards.invalidate(key);
+        budgetDashboards.invalidate(key);
+    }
+
+    private <V> Cache<DashboardKey, V> newCache() {
+        return Caffeine.newBuilder()
+                .maximumSize(maxSize)
+                .expireAfterWrite(Duration.ofSeconds(ttlSeconds))
+                .recordStats()
+                .build();
+    }
+}
@@ -0,0 +1,100 @@
+package com.example.smartspend.service;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.HashSet;
+import java.util.Set;
+
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.lang.NonNull;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import com.example.smartspend.dto.DataVersion;
+import com.example.smartspend.repository.UserRepository;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import jakarta.annotation.PostConstruct;
+
+/**
+ * Per-user data version behind the conditional GETs on the expense and budget endpoints.
+ *
+ * The version lives in users.data_version and is bumped inside the writing transaction, at
+ * most once per transaction and user, so it survives restarts and never goes backwards.
+ * Reads are served from an in-memory cache that is evicted when a bump commits; an unchanged
+ * user costs no query at all. The TTL only bounds staleness for writes made elsewhere.
+ */
+@Service
+public class DataVersionService {
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private ObjectProvider<MeterRegistry> meterRegistry;
+
+    @Value("${app.data-version.cache.ttl-seconds:300}")
+    private long ttlSeconds;
+
+    @Value("${app.data-version.cache.max-size:100000}")
+    private long maxSize;
+
+    private Cache<Long, DataVersion> cache;
+
+    @PostConstruct
+    void init() {
+        cache = Caffeine.newBuilder()
+                .maximumSize(maxSize)
+                .expireAfterWrite(Duration.ofSeconds(ttlSeconds))
+                .recordStats()
+                .build();
+        meterRegistry.ifAvailable(registry -> CaffeineCacheMetrics.monitor(registry, cache, "smartspend.data.version"));
+    }
+
+    @Transactional(readOnly = true)
+    public DataVersion current(@NonNull Long userId) {
+        return cache.get(userId, id -> userRepository.findDataVersion(id).orElse(DataVersion.INITIAL));
+    }
+
+    // Call from every write to a user's expenses or budgets, inside its transaction
+    @Transactional
+    public void bump(@NonNull Long userId) {
+        // A bulk import or an update touching several rows still bumps once
+        if (!bumpedInTransaction().add(userId)) {
+            return;
+        }
+        userRepository.bumpDataVersion(userId, Instant.now());
+        cache.invalidate(userId);
+    }
+
+    @SuppressWarnings("unchecked")
+    private Set<Long> bumpedInTransaction() {
+        Set<Long> bumped = (Set<Long>) TransactionSynchronizationManager.getResource(this);
+        if (bumped != null) {
+            return bumped;
+        }
+
+        Set<Long> created = new HashSet<>();
+        TransactionSynchronizationManager.bindResource(this, created);
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                // A read between the bump and the commit may have re-cached the old version
+                created.forEach(cache::invalidate);
+            }
+
+            @Override
+            public void afterCompletion(int status) {
+                TransactionSynchronizationManager.unbindResourceIfPossible(DataVersionService.this);
+            }
+        });
+        return created;
+    }
+}
@@ -0,0 +1,285 @@
+package com.example.smartspend.service;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.Limit;
+import org.springframework.mail.MailException;
+import org.springframework.mail.MailSendException;
+import org.springframework.mail.javamail.JavaMailSender;
+import org.springframework.mail.javamail.MimeMessageHelper;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.example.smartspend.entity.EmailOutboxMessage;
+import com.example.smartspend.entity.EmailStatus;
+import com.example.smartspend.repository.EmailOutboxRepository;
+
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import jakarta.mail.MessagingException;
+import jakarta.mail.internet.MimeMessage;
+
+/**
+ * Drains the email outbox in batches. A batch is claimed in a short transaction (IN_PROGRESS,
+ * with a lease in next_attempt_at), sent over a single SMTP connection with no transaction or
+ * row lock held, and its outcome written back in a second short transaction. Messages the
+ * server rejects are retried with exponential backoff until max-attempts, after which they are
+ * parked as FAILED with the last error kept on the row. A batch whose dispatcher dies while
+ * sending is reclaimed once its lease runs out, so delivery is at least once.
+ */
+@Component
+public class EmailDispatcher {
+    
+    private static final Logger log = LoggerFactory.getLogger(EmailDispatcher.class);
+    
+    private static final int PURGE_BATCH_SIZE = 1000;
+    
+    @Autowired
+    private EmailOutboxRepository outboxRepository;
+    
+    @Autowired
+    private JavaMailSender mailSender;
+    
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+    
+    @Autowired
+    private ObjectProvider<MeterRegistry> meterRegistry;
+    
+    @Value("${app.email.enabled:false}")
+    private boolean emailEnabled;
+    
+    @Value("${app.email.batch-size:50}")
+    private int batchSize;
+    
+    @Value("${app.email.max-attempts:6}")
+    private int maxAttempts;
+    
+    @Value("${app.email.retry-base-delay-ms:30000}")
+    private long retryBaseDelayMs;
+    
+    @Value("${app.email.retry-max-delay-ms:3600000}")
+    private long retryMaxDelayMs;
+    
+    @Value("${app.email.lease-ms:300000}")
+    private long leaseMs;
+    
+    @Value("${app.email.sent-retention-days:30}")
+    private int sentRetentionDays;
+    
+    private final AtomicLong sentCount = new AtomicLong();
+    private final AtomicLong retryCount = new AtomicLong();
+    private final AtomicLong failedCount = new AtomicLong();
+    
+    @PostConstruct
+    public void registerMetrics() {
+        meterRegistry.ifAvailable(registry -> {
+            Gauge.builder("smartspend.email.outbox.pending", this, EmailDispatcher::getQueueDepth)
+                    .description("Emails waiting in the outbox")
+                    .register(registry);
+            FunctionCounter.builder("smartspend.email.sent", sentCount, AtomicLong::get).register(registry);
+            FunctionCounter.builder("smartspend.email.retried", retryCount, AtomicLong::get).register(registry);
+            FunctionCounter.builder("smartspend.email.failed", failedCount, AtomicLong::get).register(registry);
+        });
+    }
+    
+    @Scheduled(fixedDelayString = "${app.email.dispatch-interval-ms:5000}")
+    public void dispatch() {
+        if (!emailEnabled) {
+            return;
+        }
+        
+        // Keep going while full batches are delivered; stop early once the server is failing
+        while (drainBatch() == batchSize) {
+            // next batch
+        }
+    }
+    
+    // Sends one batch of due messages and returns how many were delivered
+    public int drainBatch() {
+        TransactionTemplate transaction = new TransactionTemplate(transactionManager);
+        // Millisecond precision, so the lease reads back from the database unchanged
+        LocalDateTime lease = LocalDateTime.now().plus(Duration.ofMillis(leaseMs)).truncatedTo(ChronoUnit.MILLIS);
+        List<EmailOutboxMessage> batch = transaction.execute(status -> claimDueBatch(lease));
+        if (batch == null || batch.isEmpty()) {
+            return 0;
+        }
+        
+        int delivered = send(batch);
+        transaction.executeWithoutResult(status -> recordOutcome(batch, lease));
+        return delivered;
+    }
+    
+    // Deletes SENT rows past the retention period in batches, each its own transaction;
+    // FAILED rows are kept for someone to look at
+    @Scheduled(cron = "${app.email.retention-cron:0 45 3 * * *}")
+    public void purgeSent() {
+        TransactionTemplate transaction = new TransactionTemplate(transactionManager);
+        LocalDateTime cutoff = LocalDateTime.now().minusDays(sentRetentionDays);
+        long purged = 0;
+        int deleted;
+        do {
+            Integer batch = transaction.execute(status -> {
+                List<Long> ids = outboxRepository.findSentBefore(cutoff, Limit.of(PURGE_BATCH_SIZE));
+                if (!ids.isEmpty()) {
+                    outboxRepository.deleteAllByIdInBatch(ids);
+                }
+                return ids.size();
+            });
+            deleted = batch != null ? batch : 0;
+            purged += deleted;
+        } while (deleted == PURGE_BATCH_SIZE);
+        
+        if (purged > 0) {
+            log.info("Purged {} sent emails older than {} days", purged, sentRetentionDays);
+        }
+    }
+    
+    public long getQueueDepth() {
+        return outboxRepository.countByStatus(EmailStatus.PENDING);
+    }
+    
+    public long getSentCount() {
+        return sentCount.get();
+    }
+    
+    public long getRetryCount() {
+        return retryCount.get();
+    }
+    
+    public long getFailedCount() {
+        return failedCount.get();
+    }
+    
+    private List<EmailOutboxMessage> claimDueBatch(LocalDateTime lease) {
+        List<EmailOutboxMessage> claimed = new ArrayList<>();
+        for (EmailOutboxMessage outboxMessage : outboxRepository.lockDueBatch(LocalDateTime.now(), Limit.of(batchSize))) {
+            if (outboxMessage.getAttempts() >= maxAttempts) {
+                // The lease of its final attempt ran out
+                outboxMessage.setStatus(EmailStatus.FAILED);
+                outboxMessage.setLastError("Lease expired on the final attempt");
+                failedCount.incrementAndGet();
+                continue;
+            }
+            // Counted when claimed, so a message whose dispatcher keeps dying still runs out of attempts
+            outboxMessage.setAttempts(outboxMessage.getAttempts() + 1);
+            outboxMessage.setStatus(EmailStatus.IN_PROGRESS);
+            outboxMessage.setNextAttemptAt(lease);
+            claimed.add(outboxMessage);
+        }
+        return claimed;
+    }
+    
+    // Runs outside any transaction: a slow SMTP server holds no row locks or connections
+    private int send(List<EmailOutboxMessage> batch) {
+        Map<MimeMessage, EmailOutboxMessage> messages = new IdentityHashMap<>();
+        for (EmailOutboxMessage outboxMessage : batch) {
+            try {
+                messages.put(toMimeMessage(outboxMessage), outboxMessage);
+            } catch (MessagingException e) {
+                // A message that cannot even be built will never succeed
+                markFailed(outboxMessage, e);
+            }
+        }
+        
+        if (messages.isEmpty()) {
+            return 0;
+        }
+        
+        Map<Object, Exception> failures;
+        try {
+            mailSender.send(messages.keySet().toArray(new MimeMessage[0]));
+            failures = Map.of();
+        } catch (MailSendException e) {
+            failures = e.getFailedMessages();
+        } catch (MailException e) {
+            messages.values().forEach(outboxMessage -> scheduleRetry(outboxMessage, e));
+            return 0;
+        }
+        
+        int delivered = 0;
+        for (Map.Entry<MimeMessage, EmailOutboxMessage> entry : messages.entrySet()) {
+            Exception failure = failures.get(entry.getKey());
+            if (failure != null) {
+                scheduleRetry(entry.getValue(), failure);
+            } else {
+                markSent(entry.getValue());
+                delivered++;
+            }
+        }
+        return delivered;
+    }
+    
+    private MimeMessage toMimeMessage(EmailOutboxMessage outboxMessage) throws MessagingException {
+        MimeMessage message = mailSender.createMimeMessage();
+        MimeMessageHelper helper = new MimeMessageHelper(message, true, "UTF-8");
+        helper.setTo(outboxMessage.getRecipient());
+        helper.setSubject(outboxMessage.getSubject());
+        helper.setText(outboxMessage.getHtmlBody(), true);
+        return message;
+    }
+    
+    private void recordOutcome(List<EmailOutboxMessage> batch, LocalDateTime lease) {
+        for (EmailOutboxMessage outboxMessage : batch) {
+            int updated = outboxRepository.recordAttempt(outboxMessage.getId(), lease, outboxMessage.getStatus(),
+                    outboxMessage.getNextAttemptAt(), outboxMessage.getLastError(), outboxMessage.getSentAt());
+            if (updated == 0) {
+                log.warn("Email {} was reclaimed after its lease ran out; not recording this attempt", outboxMessage.getId());
+            }
+        }
+    }
+    
+    private void markSent(EmailOutboxMessage outboxMessage) {
+        outboxMessage.setStatus(EmailStatus.SENT);
+        outboxMessage.setSentAt(LocalDateTime.now());
+        outboxMessage.setLastError(null);
+        sentCount.incrementAndGet();
+    }
+    
+    private void scheduleRetry(EmailOutboxMessage outboxMessage, Exception error) {
+        int attempts = outboxMessage.getAttempts();
+        outboxMessage.setLastError(truncate(error.getMessage()));
+        
+        if (attempts >= maxAttempts) {
+            outboxMessage.setStatus(EmailStatus.FAILED);
+            failedCount.incrementAndGet();
+            log.error("Giving up on email {} after {} attempts: {}", outboxMessage.getId(), attempts, error.getMessage());
+            return;
+        }
+        
+        // base, 2x base, 4x base ... capped at the max delay
+        long delayMs = Math.min(retryBaseDelayMs << Math.min(attempts - 1, 20), retryMaxDelayMs);
+        outboxMessage.setStatus(EmailStatus.PENDING);
+        outboxMessage.setNextAttemptAt(LocalDateTime.now().plus(Duration.ofMillis(delayMs)));
+        retryCount.incrementAndGet();
+    }
+    
+    private void markFailed(EmailOutboxMessage outboxMessage, Exception error) {
+        outboxMessage.setStatus(EmailStatus.FAILED);
+        outboxMessage.setLastError(truncate(error.getMessage()));
+        failedCount.incrementAndGet();
+    }
+    
+    private String truncate(String message) {
+        if (message == null) {
+            return null;
+        }
+        return message.length() > 1000 ? message.substring(0, 1000) : message;
+    }
+}
@@ -0,0 +1,139 @@
+package com.example.smartspend.service;
+
+import java.text.DecimalFormat;
+import java.text.DecimalFormatSymbols;
+import java.time.Month;
+import java.time.format.TextStyle;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+
+import org.springframework.stereotype.Component;
+import org.thymeleaf.context.Context;
+import org.thymeleaf.spring6.SpringTemplateEngine;
+import org.thymeleaf.templatemode.TemplateMode;
+import org.thymeleaf.templateresolver.ClassLoaderTemplateResolver;
+
+import com.example.smartspend.entity.Category;
+import com.example.smartspend.entity.Money;
+
+import jakarta.annotation.PostConstruct;
+
+/**
+ * Turns email data into HTML. Owns its own template engine so the email templates stay
+ * parsed and cached even when spring.thymeleaf.cache is off for the web pages, and hands
+ * templates pre-formatted strings so a render is only variable substitution.
+ * Thread-safe: bulk summary runs call it from several render threads at once.
+ */
+@Component
+public class EmailRenderer {
+
+    public static final String VERIFICATION_TEMPLATE = "verification-email";
+    public static final String BUDGET_WARNING_TEMPLATE = "budget-warning-email";
+    public static final String BUDGET_EXCEEDED_TEMPLATE = "budget-exceeded-email";
+    public static final String MONTHLY_SUMMARY_TEMPLATE = "monthly-summary-email";
+
+    private static final List<String> TEMPLATES = List.of(
+            VERIFICATION_TEMPLATE, BUDGET_WARNING_TEMPLATE, BUDGET_EXCEEDED_TEMPLATE, MONTHLY_SUMMARY_TEMPLATE);
+
+    // DecimalFormat is not thread-safe; one instance per render thread avoids re-parsing the pattern per value
+    private static final ThreadLocal<DecimalFormat> AMOUNT_FORMAT = ThreadLocal.withInitial(
+            () -> new DecimalFormat("#,##0.00", DecimalFormatSymbols.getInstance(Locale.US)));
+    private static final ThreadLocal<DecimalFormat> PERCENT_FORMAT = ThreadLocal.withInitial(
+            () -> new DecimalFormat("0.0", DecimalFormatSymbols.getInstance(Locale.US)));
+
+    private final SpringTemplateEngine templateEngine;
+
+    public EmailRenderer() {
+        this(true);
+    }
+
+    // Uncached mode exists only to measure what the cache saves
+    public EmailRenderer(boolean cacheTemplates) {
+        ClassLoaderTemplateResolver resolver = new ClassLoaderTemplateResolver();
+        resolver.setPrefix("templates/email/");
+        resolver.setSuffix(".html");
+        resolver.setTemplateMode(TemplateMode.HTML);
+        resolver.setCharacterEncoding("UTF-8");
+        resolver.setCacheable(cacheTemplates);
+
+        templateEngine = new SpringTemplateEngine();
+        templateEngine.setTemplateResolver(resolver);
+        templateEngine.setEnableSpringELCompiler(true);
+    }
+
+    // Parses every template up front so the first real send doesn't pay for it
+    @PostConstruct
+    public void warmUp() {
+        for (String template : TEMPLATES) {
+            templateEngine.process(template, new Context(Locale.US));
+        }
+    }
+
+    public String renderVerification(String verificationUrl) {
+        Context context = new Context(Locale.US);
+        context.setVariable("verificationUrl", verificationUrl);
+        return templateEngine.process(VERIFICATION_TEMPLATE, context);
+    }
+
+    public String renderBudgetWarning(Category category, Money budgetAmount, double utilization) {
+        return renderBudgetAlert(BUDGET_WARNING_TEMPLATE, category, budgetAmount, utilization);
+    }
+
+    public String renderBudgetExceeded(Category category, Money budgetAmount, double utilization) {
+        return renderBudgetAlert(BUDGET_EXCEEDED_TEMPLATE, category, budgetAmount, utilization);
+    }
+
+    public String renderMonthlySummary(int month, int year, Money totalIncome, Money totalExpenses,
+                                       List<EmailService.BudgetStatus> budgetStatus,
+                                       List<EmailService.CategorySpending> topCategories) {
+        List<BudgetLine> budgetLines = new ArrayList<>(budgetStatus.size());
+        int exceededBudgets = 0;
+        for (EmailService.BudgetStatus status : budgetStatus) {
+            boolean exceeded = status.getUtilization() >= 100;
+            if (exceeded) {
+                exceededBudgets++;
+            }
+            budgetLines.add(new BudgetLine(status.getCategory().toString(), formatAmount(status.getAmount()),
+                    formatAmount(status.getSpent()), formatPercent(status.getUtilization()), exceeded));
+        }
+
+        List<CategoryLine> categoryLines = new ArrayList<>(topCategories.size());
+        for (EmailService.CategorySpending spending : topCategories) {
+            categoryLines.add(new CategoryLine(spending.getName(), formatAmount(spending.getAmount()),
+                    formatPercent(spending.getPercentage())));
+        }
+
+        Context context = new Context(Locale.US);
+        context.setVariable("period", Month.of(month).getDisplayName(TextStyle.FULL, Locale.US) + " " + year);
+        context.setVariable("totalIncome", formatAmount(totalIncome));
+        context.setVariable("totalExpenses", formatAmount(totalExpenses));
+        context.setVariable("netSavings", formatAmount(totalIncome.minus(totalExpenses)));
+        context.setVariable("budgetStatus", budgetLines);
+        context.setVariable("topCategories", categoryLines);
+        context.setVariable("exceededBudgets", exceededBudgets);
+        return templateEngine.process(MONTHLY_SUMMARY_TEMPLATE, context);
+    }
+
+    // Formats the exact decimal, so no binary rounding shows up in the cents
+    public String formatAmount(Money amount) {
+        return AMOUNT_FORMAT.get().format(amount.toBigDecimal());
+    }
+
+    public String formatPercent(double percent) {
+        return PERCENT_FORMAT.get().format(percent);
+    }
+
+    private String renderBudgetAlert(String template, Category category, Money budgetAmount, double utilization) {
+        Context context = new Context(Locale.US);
+        context.setVariable("category", category.toString());
+        context.setVariable("budgetAmount", formatAmount(budgetAmount));
+        context.setVariable("utilization", formatPercent(utilization));
+        return templateEngine.process(template, context);
+    }
+
+    // Template rows: values are already formatted so the template does no number handling
+    public record BudgetLine(String category, String amount, String spent, String utilization, boolean exceeded) {}
+
+    public record CategoryLine(String name, String amount, String percentage) {}
+}
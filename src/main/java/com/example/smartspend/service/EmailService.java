@@ -2,29 +2,41 @@ package com.example.smartspend.service;
 
 import java.util.List;
 
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.ObjectProvider;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.lang.NonNull;
-import org.springframework.mail.javamail.JavaMailSender;
-import org.springframework.mail.javamail.MimeMessageHelper;
 import org.springframework.stereotype.Service;
-import org.thymeleaf.TemplateEngine;
-import org.thymeleaf.context.Context;
 
 import com.example.smartspend.entity.Budget;
 import com.example.smartspend.entity.Category;
+import com.example.smartspend.entity.EmailOutboxMessage;
+import com.example.smartspend.entity.Money;
+import com.example.smartspend.repository.EmailOutboxRepository;
 
-import jakarta.mail.MessagingException;
-import jakarta.mail.internet.MimeMessage;
+import io.micrometer.core.annotation.Timed;
+import io.micrometer.core.instrument.MeterRegistry;
 
+/**
+ * Renders emails and queues them in the outbox within the caller's transaction.
+ * Delivery happens later, in batches, in EmailDispatcher.
+ */
 @Service
+@Timed(value = "smartspend.service", histogram = true)
 public class EmailService {
     
+    private static final Logger log = LoggerFactory.getLogger(EmailService.class);
+    
+    @Autowired
+    private EmailOutboxRepository outboxRepository;
+    
     @Autowired
-    private JavaMailSender mailSender;
+    private EmailRenderer emailRenderer;
     
     @Autowired
-    private TemplateEngine templateEngine;
+    private ObjectProvider<MeterRegistry> meterRegistry;
     
     @Value("${app.email.enabled:false}")
     private boolean emailEnabled;
@@ -36,139 +48,128 @@ public class EmailService {
         String verificationUrl = baseUrl + "/api/auth/verify?token=" + token;
         
         if (!emailEnabled) {
-            System.out.println("📧 [EMAIL DISABLED] Verification email would be sent to: " + toEmail);
-            System.out.println("🔗 Verification URL: " + verificationUrl);
-            System.out.println("🔑 Verification Token: " + token);
+            log.info("Email disabled, verification email not queued for {}; verification URL: {}", toEmail, verificationUrl);
             return;
         }
         
+        String htmlContent;
         try {
-            MimeMessage message = mailSender.createMimeMessage();
-            MimeMessageHelper helper = new MimeMessageHelper(message, true, "UTF-8");
-            
-            helper.setTo(toEmail);
-            helper.setSubject("Verify your SmartSpend account");
-            
-            Context context = new Context();
-            context.setVariable("verificationUrl", verificationUrl);
-            String htmlContent = templateEngine.process("verification-email", context);
-            
-            helper.setText(htmlContent, true);
-            
-            mailSender.send(message);
-            System.out.println("✅ Verification email sent to: " + toEmail);
-        } catch (MessagingException e) {
-            System.err.println("❌ Failed to send verification email: " + e.getMessage());
-            System.out.println("🔗 Manual verification URL: " + verificationUrl);
+            htmlContent = emailRenderer.renderVerification(verificationUrl);
+        } catch (RuntimeException e) {
+            countFailure("verification");
+            log.error("Failed to render verification email for {}; manual verification URL: {}", toEmail, verificationUrl, e);
+            return;
         }
+        
+        enqueue("verification", toEmail, "Verify your SmartSpend account", htmlContent);
+        log.debug("Verification email queued for {}", toEmail);
     }
     
     public void sendBudgetWarningEmail(@NonNull String userEmail, @NonNull Budget budget, double utilization) {
         if (!emailEnabled) {
-            System.out.println("📧 [EMAIL DISABLED] Budget warning for: " + userEmail);
-            System.out.println("💰 Category: " + budget.getCategory() + ", Utilization: " + String.format("%.2f", utilization) + "%");
+            log.info("Email disabled, budget warning email not queued for {} ({} at {}%)", userEmail,
+                    budget.getCategory(), emailRenderer.formatPercent(utilization));
             return;
         }
         
+        String htmlContent;
         try {
-            MimeMessage message = mailSender.createMimeMessage();
-            MimeMessageHelper helper = new MimeMessageHelper(message, true, "UTF-8");
-            
-            helper.setTo(userEmail);
-            helper.setSubject("Budget Warning - " + budget.getCategory());
-            
-            Context context = new Context();
-            context.setVariable("category", budget.getCategory());
-            context.setVariable("budgetAmount", budget.getAmount());
-            context.setVariable("utilization", String.format("%.2f", utilization));
-            String htmlContent = templateEngine.process("budget-warning-email", context);
-            
-            helper.setText(htmlContent, true);
-            
-            mailSender.send(message);
-        } catch (MessagingException e) {
-            System.err.println("❌ Failed to send budget warning email: " + e.getMessage());
+            htmlContent = emailRenderer.renderBudgetWarning(budget.getCategory(), budget.getAmount(), utilization);
+        } catch (RuntimeException e) {
+            countFailure("budget_warning");
+            log.error("Failed to render budget warning email for {}", userEmail, e);
+            return;
         }
+        
+        enqueue("budget_warning", userEmail, "Budget Warning - " + budget.getCategory(), htmlContent);
     }
     
     public void sendBudgetExceededEmail(@NonNull String userEmail, @NonNull Budget budget, double utilization) {
         if (!emailEnabled) {
-            System.out.println("📧 [EMAIL DISABLED] Budget exceeded for: " + userEmail);
-            System.out.println("💰 Category: " + budget.getCategory() + ", Utilization: " + String.format("%.2f", utilization) + "%");
+            log.info("Email disabled, budget exceeded email not queued for {} ({} at {}%)", userEmail,
+                    budget.getCategory(), emailRenderer.formatPercent(utilization));
             return;
         }
         
+        String htmlContent;
         try {
-            MimeMessage message = mailSender.createMimeMessage();
-            MimeMessageHelper helper = new MimeMessageHelper(message, true, "UTF-8");
-            
-            helper.setTo(userEmail);
-            helper.setSubject("Budget Exceeded - " + budget.getCategory());
-            
-            Context context = new Context();
-            context.setVariable("category", budget.getCategory());
-            context.setVariable("budgetAmount", budget.getAmount());
-            context.setVariable("utilization", String.format("%.2f", utilization));
-            String htmlContent = templateEngine.process("budget-exceeded-email", context);
-            
-            helper.setText(htmlContent, true);
-            
-            mailSender.send(message);
-        } catch (MessagingException e) {
-            System.err.println("❌ Failed to send budget exceeded email: " + e.getMessage());
+            htmlContent = emailRenderer.renderBudgetExceeded(budget.getCategory(), budget.getAmount(), utilization);
+        } catch (RuntimeException e) {
+            countFailure("budget_exceeded");
+            log.error("Failed to render budget exceeded email for {}", userEmail, e);
+            return;
         }
+        
+        enqueue("budget_exceeded", userEmail, "Budget Exceeded - " + budget.getCategory(), htmlContent);
     }
     
     public void sendMonthlySummaryEmail(@NonNull String userEmail, int month, int year, 
-                                       Double totalIncome, Double totalExpenses, 
+                                       Money totalIncome, Money totalExpenses, 
                                        List<BudgetStatus> budgetStatus, 
                                        List<CategorySpending> topCategories) {
         if (!emailEnabled) {
-            System.out.println("📧 [EMAIL DISABLED] Monthly summary for: " + userEmail);
-            System.out.println("📊 Month: " + month + "/" + year + ", Income: " + totalIncome + ", Expenses: " + totalExpenses);
+            log.info("Email disabled, monthly summary for {}/{} not queued for {}", month, year, userEmail);
             return;
         }
         
+        EmailOutboxMessage message;
         try {
-            MimeMessage message = mailSender.createMimeMessage();
-            MimeMessageHelper helper = new MimeMessageHelper(message, true, "UTF-8");
-            
-            helper.setTo(userEmail);
-            helper.setSubject("Your Monthly Financial Summary - " + month + "/" + year);
-            
-            Context context = new Context();
-            context.setVariable("month", month);
-            context.setVariable("year", year);
-            context.setVariable("totalIncome", totalIncome);
-            context.setVariable("totalExpenses", totalExpenses);
-            context.setVariable("netSavings", totalIncome - totalExpenses);
-            context.setVariable("budgetStatus", budgetStatus);
-            context.setVariable("topCategories", topCategories);
-            context.setVariable("exceededBudgets", 
-                budgetStatus.stream().filter(b -> b.getUtilization() >= 100).count());
-            
-            String htmlContent = templateEngine.process("monthly-summary-email", context);
-            helper.setText(htmlContent, true);
-            
-            mailSender.send(message);
-        } catch (MessagingException e) {
-            System.err.println("❌ Failed to send monthly summary email: " + e.getMessage());
+            message = renderMonthlySummary(userEmail, month, year, totalIncome, totalExpenses,
+                    budgetStatus, topCategories);
+        } catch (RuntimeException e) {
+            countFailure("monthly_summary");
+            log.error("Failed to render monthly summary email for {}", userEmail, e);
+            return;
         }
+        
+        outboxRepository.save(message);
+        countQueued("monthly_summary", 1);
+    }
+    
+    // Renders without queueing so bulk runs can render in parallel and insert in one batch
+    public EmailOutboxMessage renderMonthlySummary(@NonNull String userEmail, int month, int year, 
+                                                   Money totalIncome, Money totalExpenses, 
+                                                   List<BudgetStatus> budgetStatus, 
+                                                   List<CategorySpending> topCategories) {
+        String htmlContent = emailRenderer.renderMonthlySummary(month, year, totalIncome, totalExpenses,
+                budgetStatus, topCategories);
+        return new EmailOutboxMessage(userEmail, "Your Monthly Financial Summary - " + month + "/" + year, htmlContent);
+    }
+    
+    public void enqueueMonthlySummaries(@NonNull List<EmailOutboxMessage> messages) {
+        outboxRepository.saveAll(messages);
+        countQueued("monthly_summary", messages.size());
     }
     
     public boolean isEmailConfigured() {
         return emailEnabled;
     }
     
+    // Joins the caller's transaction, so the message is only delivered if that transaction commits.
+    // Persistence errors propagate: swallowing them would leave that transaction rollback-only
+    private void enqueue(String type, String recipient, String subject, String htmlContent) {
+        outboxRepository.save(new EmailOutboxMessage(recipient, subject, htmlContent));
+        countQueued(type, 1);
+    }
+    
+    // Delivery outcomes are counted by EmailDispatcher; these cover queueing
+    private void countQueued(String type, int count) {
+        meterRegistry.ifAvailable(registry -> registry.counter("smartspend.email.queued", "type", type).increment(count));
+    }
+    
+    private void countFailure(String type) {
+        meterRegistry.ifAvailable(registry -> registry.counter("smartspend.email.queue.failed", "type", type).increment());
+    }
+    
     public static class BudgetStatus {
         private Category category;
-        private Double amount;
-        private Double spent;
+        private Money amount;
+        private Money spent;
         private Double utilization;
         
         public BudgetStatus() {}
         
-        public BudgetStatus(Category category, Double amount, Double spent, Double utilization) {
+        public BudgetStatus(Category category, Money amount, Money spent, Double utilization) {
             this.category = category;
             this.amount = amount;
             this.spent = spent;
@@ -178,11 +179,11 @@ public class EmailService {
         public Category getCategory() { return category; }
         public void setCategory(Category category) { this.category = category; }
         
-        public Double getAmount() { return amount; }
-        public void setAmount(Double amount) { this.amount = amount; }
+        public Money getAmount() { return amount; }
+        public void setAmount(Money amount) { this.amount = amount; }
         
-        public Double getSpent() { return spent; }
-        public void setSpent(Double spent) { this.spent = spent; }
+        public Money getSpent() { return spent; }
+        public void setSpent(Money spent) { this.spent = spent; }
         
         public Double getUtilization() { return utilization; }
         public void setUtilization(Double utilization) { this.utilization = utilization; }
@@ -190,12 +191,12 @@ public class EmailService {
     
     public static class CategorySpending {
         private String name;
-        private Double amount;
+        private Money amount;
         private Double percentage;
         
         public CategorySpending() {}
         
-        public CategorySpending(String name, Double amount, Double percentage) {
+        public CategorySpending(String name, Money amount, Double percentage) {
             this.name = name;
             this.amount = amount;
             this.percentage = percentage;
@@ -204,8 +205,8 @@ public class EmailService {
         public String getName() { return name; }
         public void setName(String name) { this.name = name; }
         
-        public Double getAmount() { return amount; }
-        public void setAmount(Double amount) { this.amount = amount; }
+        public Money getAmount() { return amount; }
+        public void setAmount(Money amount) { this.amount = amount; }
         
         public Double getPercentage() { return percentage; }
         public void setPercentage(Double percentage) { this.percentage = percentage; }
@@ -0,0 +1,20 @@
+package com.example.smartspend.service;
+
+import java.time.YearMonth;
+
+import com.example.smartspend.entity.Category;
+import com.example.smartspend.entity.TransactionType;
+
+/**
+ * Published whenever a write changes a user's monthly totals for one category and type.
+ * An update that moves an expense publishes one event for the old values and one for the new.
+ * The amount delta is in minor units.
+ */
+public record ExpenseChangedEvent(
+        Long userId,
+        Category category,
+        TransactionType type,
+        YearMonth period,
+        long amountDeltaMinor,
+        long countDelta) {
+}
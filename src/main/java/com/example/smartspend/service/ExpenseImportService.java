@@ -0,0 +1,355 @@
+package com.example.smartspend.service;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.Reader;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.time.YearMonth;
+import java.time.format.DateTimeParseException;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.lang.NonNull;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import com.example.smartspend.dto.ExpenseImportResult;
+import com.example.smartspend.dto.ExpenseRequest;
+import com.example.smartspend.dto.ImportRowError;
+import com.example.smartspend.entity.Category;
+import com.example.smartspend.entity.Expense;
+import com.example.smartspend.entity.Money;
+import com.example.smartspend.entity.TransactionType;
+import com.example.smartspend.entity.User;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import jakarta.validation.ConstraintViolation;
+import jakarta.validation.Validator;
+
+/**
+ * Bulk expense import from a JSON array or a CSV file. Rows are parsed and validated one
+ * at a time as the input is read, persisted in JDBC batches (the persistence context is
+ * flushed and cleared every batch), and all rows of an import commit together.
+ *
+ * Rollups are updated once per (month, category, type) at the end rather than per row,
+ * which also means budget alerts are evaluated once per affected category and month.
+ */
+@Service
+public class ExpenseImportService {
+    
+    public static final int MAX_REPORTED_ERRORS = 1000;
+    
+    // Column names accepted in the CSV header, in any order; description is optional
+    private static final List<String> CSV_COLUMNS = List.of("date", "title", "amount", "category", "type", "description");
+    
+    @Autowired
+    private UserService userService;
+    
+    @Autowired
+    private ExpenseRollupService rollupService;
+    
+    @Autowired
+    private DataVersionService dataVersionService;
+    
+    @Autowired
+    private ObjectMapper objectMapper;
+    
+    @Autowired
+    private Validator validator;
+    
+    @PersistenceContext
+    private EntityManager entityManager;
+    
+    @Value("${spring.jpa.properties.hibernate.jdbc.batch_size:50}")
+    private int batchSize;
+    
+    @Transactional
+    public ExpenseImportResult importJson(@NonNull Long userId, @NonNull InputStream input) throws IOException {
+        Importer importer = new Importer(userId);
+        
+        try (JsonParser parser = objectMapper.getFactory().createParser(input)) {
+            if (parser.nextToken() != JsonToken.START_ARRAY) {
+                throw new RuntimeException("Expected a JSON array of expenses");
+            }
+            int row = 0;
+            while (parser.nextToken() != JsonToken.END_ARRAY) {
+                row++;
+                // One element at a time as a small tree, so a bad row can't derail the parser
+                JsonNode node = parser.readValueAsTree();
+                if (node == null || !node.isObject()) {
+                    importer.reject(row, "Expected an expense object");
+                    continue;
+                }
+                try {
+                    importer.accept(row, objectMapper.treeToValue(node, ExpenseRequest.class));
+                } catch (JsonProcessingException e) {
+                    importer.reject(row, "Invalid value: " + e.getOriginalMessage());
+                }
+            }
+        }
+        return importer.finish();
+    }
+    
+    @Transactional
+    public ExpenseImportResult importCsv(@NonNull Long userId, @NonNull InputStream input) throws IOException {
+        Importer importer = new Importer(userId);
+        
+        try (Reader reader = new InputStreamReader(input, StandardCharsets.UTF_8)) {
+            CsvReader csv = new CsvReader(reader);
+            List<String> header = csv.readRecord();
+            if (header == null) {
+                throw new RuntimeException("CSV file is empty");
+            }
+            Map<String, Integer> columns = parseHeader(header);
+            
+            List<String> fields;
+            while ((fields = csv.readRecord()) != null) {
+                if (fields.size() == 1 && fields.get(0).isBlank()) {
+                    continue;
+                }
+                // Errors point at the line the record starts on
+                int lineNumber = csv.getRecordLine();
+                try {
+                    importer.accept(lineNumber, toRequest(fields, columns));
+                } catch (IllegalArgumentException | DateTimeParseException e) {
+                    importer.reject(lineNumber, e.getMessage());
+                }
+            }
+        }
+        return importer.finish();
+    }
+    
+    private Map<String, Integer> parseHeader(List<String> header) {
+        Map<String, Integer> columns = new HashMap<>();
+        for (int i = 0; i < header.size(); i++) {
+            String name = header.get(i).replace("\uFEFF", "").trim().toLowerCase(Locale.ROOT);
+            if (CSV_COLUMNS.contains(name)) {
+                columns.put(name, i);
+            }
+        }
+        for (String required : CSV_COLUMNS.subList(0, 5)) {
+            if (!columns.containsKey(required)) {
+                throw new RuntimeException("CSV header is missing column: " + required);
+            }
+        }
+        return columns;
+    }
+    
+    private ExpenseRequest toRequest(List<String> fields, Map<String, Integer> columns) {
+        ExpenseRequest request = new ExpenseRequest();
+        request.setTitle(field(fields, columns, "title"));
+        
+        String amount = field(fields, columns, "amount");
+        String category = field(fields, columns, "category");
+        String type = field(fields, columns, "type");
+        String date = field(fields, columns, "date");
+        request.setAmount(amount != null ? Money.valueOf(amount) : null);
+        try {
+            request.setCategory(category != null ? Category.valueOf(category.toUpperCase(Locale.ROOT)) : null);
+        } catch (IllegalArgumentException e) {
+            throw new IllegalArgumentException("Invalid category: " + category);
+        }
+        try {
+            request.setType(type != null ? TransactionType.valueOf(type.toUpperCase(Locale.ROOT)) : null);
+        } catch (IllegalArgumentException e) {
+            throw new IllegalArgumentException("Invalid type: " + type);
+        }
+        try {
+            request.setDate(date != null ? LocalDate.parse(date) : null);
+        } catch (DateTimeParseException e) {
+            throw new IllegalArgumentException("Invalid date (expected yyyy-MM-dd): " + date);
+        }
+        request.setDescription(field(fields, columns, "description"));
+        return request;
+    }
+    
+    private String field(List<String> fields, Map<String, Integer> columns, String name) {
+        Integer index = columns.get(name);
+        if (index == null || index >= fields.size()) {
+            return null;
+        }
+        String value = fields.get(index).trim();
+        return value.isEmpty() ? null : value;
+    }
+    
+    // RFC 4180 records: commas inside double quotes, "" for a literal quote, and line breaks inside
+    // quotes kept as written (the export quotes multi-line descriptions), so one record can span
+    // several physical lines
+    static class CsvReader {
+        
+        private final Reader reader;
+        private final char[] buffer = new char[8192];
+        private int position;
+        private int limit;
+        private int line = 1;
+        private int recordLine;
+        
+        CsvReader(Reader reader) {
+            this.reader = reader;
+        }
+        
+        // Physical line (1-based) the last record read starts on
+        int getRecordLine() {
+            return recordLine;
+        }
+        
+        // The next record's fields, or null at the end of the input
+        List<String> readRecord() throws IOException {
+            int c = read();
+            if (c < 0) {
+                return null;
+            }
+            recordLine = line;
+            List<String> fields = new ArrayList<>();
+            StringBuilder current = new StringBuilder();
+            boolean quoted = false;
+            
+            while (c >= 0) {
+                if (quoted) {
+                    if (c == '"') {
+                        if (peek() == '"') {
+                            read();
+                            current.append('"');
+                        } else {
+                            quoted = false;
+                        }
+                    } else {
+                        if (c == '\n') {
+                            line++;
+                        }
+                        current.append((char) c);
+                    }
+                } else if (c == '"') {
+                    quoted = true;
+                } else if (c == ',') {
+                    fields.add(current.toString());
+                    current.setLength(0);
+                } else if (c == '\n' || c == '\r') {
+                    if (c == '\r' && peek() == '\n') {
+                        read();
+                    }
+                    line++;
+                    break;
+                } else {
+                    current.append((char) c);
+                }
+                c = read();
+            }
+            fields.add(current.toString());
+            return fields;
+        }
+        
+        private int read() throws IOException {
+            int c = peek();
+            if (c >= 0) {
+                position++;
+            }
+            return c;
+        }
+        
+        private int peek() throws IOException {
+            if (position == limit) {
+                limit = reader.read(buffer, 0, buffer.length);
+                position = 0;
+                if (limit < 0) {
+                    limit = 0;
+                    return -1;
+                }
+            }
+            return buffer[position];
+        }
+    }
+    
+    private record RollupKey(YearMonth period, Category category, TransactionType type) {}
+    
+    // Per-import state: batching, rollup deltas and the error report
+    private class Importer {
+        
+        private final Long userId;
+        private final Map<RollupKey, long[]> rollupDeltas = new HashMap<>();
+        private final List<ImportRowError> errors = new ArrayList<>();
+        private User userRef;
+        private int totalRows;
+        private int imported;
+        private int rejected;
+        
+        Importer(Long userId) {
+            this.userId = userId;
+            // Fails fast for an unknown user; later rows only need a reference
+            userService.findById(userId);
+            this.userRef = entityManager.getReference(User.class, userId);
+        }
+        
+        void accept(int row, ExpenseRequest request) {
+            totalRows++;
+            Set<ConstraintViolation<ExpenseRequest>> violations = validator.validate(request);
+            if (!violations.isEmpty()) {
+                recordError(row, violations.stream()
+                        .map(v -> v.getPropertyPath() + " " + v.getMessage())
+                        .sorted()
+                        .collect(Collectors.joining(", ")));
+                return;
+            }
+            
+            Expense expense = new Expense(request.getTitle(), request.getAmount(), request.getCategory(),
+                    request.getType(), request.getDate(), request.getDescription());
+            expense.setUser(userRef);
+            entityManager.persist(expense);
+            imported++;
+            
+            // Minor units and count
+            long[] delta = rollupDeltas.computeIfAbsent(
+                    new RollupKey(YearMonth.from(request.getDate()), request.getCategory(), request.getType()),
+                    key -> new long[2]);
+            delta[0] += request.getAmount().minorUnits();
+            delta[1]++;
+            
+            if (imported % batchSize == 0) {
+                // Sends the batch and keeps the persistence context from growing with the file
+                entityManager.flush();
+                entityManager.clear();
+                userRef = entityManager.getReference(User.class, userId);
+            }
+        }
+        
+        void reject(int row, String message) {
+            totalRows++;
+            recordError(row, message);
+        }
+        
+        ExpenseImportResult finish() {
+            entityManager.flush();
+            entityManager.clear();
+            
+            rollupDeltas.forEach((key, delta) -> rollupService.apply(userId, key.period().atDay(1),
+                    key.category(), key.type(), delta[0], delta[1]));
+            if (imported > 0) {
+                dataVersionService.bump(userId);
+            }
+            
+            return new ExpenseImportResult(totalRows, imported, rejected, errors, rejected > errors.size());
+        }
+        
+        private void recordError(int row, String message) {
+            rejected++;
+            if (errors.size() < MAX_REPORTED_ERRORS) {
+                errors.add(new ImportRowError(row, message));
+            }
+        }
+    }
+}
@@ -0,0 +1,127 @@
+package com.example.smartspend.service;
+
+import java.time.LocalDate;
+import java.time.YearMonth;
+import java.util.List;
+
+import org.hibernate.dialect.PostgreSQLDialect;
+import org.hibernate.engine.spi.SessionFactoryImplementor;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.lang.NonNull;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import com.example.smartspend.dto.MonthlyRollupRow;
+import com.example.smartspend.entity.Category;
+import com.example.smartspend.entity.Expense;
+import com.example.smartspend.entity.Money;
+import com.example.smartspend.entity.MonthlyCategoryRollup;
+import com.example.smartspend.entity.TransactionType;
+import com.example.smartspend.repository.ExpenseRepository;
+import com.example.smartspend.repository.MonthlyCategoryRollupRepository;
+
+import jakarta.annotation.PostConstruct;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+
+/**
+ * Keeps the monthly_category_rollups table in step with expenses. Every change is applied
+ * inside the caller's transaction, so a rollup row never disagrees with committed expenses,
+ * and announced as an {@link ExpenseChangedEvent} for after-commit listeners.
+ */
+@Service
+@Transactional
+public class ExpenseRollupService {
+    
+    @Autowired
+    private MonthlyCategoryRollupRepository rollupRepository;
+    
+    @Autowired
+    private ExpenseRepository expenseRepository;
+    
+    @Autowired
+    private ApplicationEventPublisher eventPublisher;
+    
+    @PersistenceContext
+    private EntityManager entityManager;
+    
+    // ON CONFLICT upserts and advisory locks are PostgreSQL features. The H2 tests and
+    // benchmarks use the portable update-then-insert path, which a concurrent first write
+    // for the same key can still fail
+    private boolean postgres;
+    
+    @PostConstruct
+    void detectDatabase() {
+        postgres = entityManager.getEntityManagerFactory().unwrap(SessionFactoryImplementor.class)
+                .getJdbcServices().getDialect() instanceof PostgreSQLDialect;
+    }
+    
+    public void recordAdded(@NonNull Long userId, @NonNull Expense expense) {
+        apply(userId, expense.getDate(), expense.getCategory(), expense.getType(),
+                expense.getAmount().minorUnits(), 1);
+    }
+    
+    public void recordRemoved(@NonNull Long userId, @NonNull Expense expense) {
+        apply(userId, expense.getDate(), expense.getCategory(), expense.getType(),
+                -expense.getAmount().minorUnits(), -1);
+    }
+    
+    // amountMinor is in minor units (see Money)
+    public void apply(@NonNull Long userId, @NonNull LocalDate date, @NonNull Category category,
+                      @NonNull TransactionType type, long amountMinor, long count) {
+        int year = date.getYear();
+        int month = date.getMonthValue();
+        
+        if (postgres) {
+            // Held until commit, so a rebuild never runs between this delta and its expense
+            rollupRepository.lockUserShared(userId);
+            rollupRepository.upsertDelta(userId, year, month, category.code(), type.code(), amountMinor, count);
+        } else if (rollupRepository.applyDelta(userId, year, month, category, type, amountMinor, count) == 0) {
+            MonthlyCategoryRollup created = rollupRepository.save(
+                    new MonthlyCategoryRollup(userId, year, month, category, type, amountMinor, count));
+            // Already inserted (IDENTITY); detaching keeps later applyDelta auto-flushes in the
+            // same transaction from dirty-checking every rollup created so far (bulk import)
+            entityManager.detach(created);
+        }
+        
+        eventPublisher.publishEvent(new ExpenseChangedEvent(userId, category, type,
+                YearMonth.of(year, month), amountMinor, count));
+    }
+    
+    @Transactional(readOnly = true)
+    public List<MonthlyCategoryRollup> getMonth(@NonNull Long userId, int year, int month) {
+        return rollupRepository.findByUserIdAndYearAndMonth(userId, year, month);
+    }
+    
+    // Nothing to undo on failure, so the caller's transaction is not marked rollback-only
+    @Transactional(readOnly = true, noRollbackFor = RuntimeException.class)
+    public Money getTotal(@NonNull Long userId, @NonNull Category category, @NonNull TransactionType type,
+                          int year, int month) {
+        return rollupRepository.findByUserIdAndYearAndMonthAndCategoryAndType(userId, year, month, category, type)
+                .map(MonthlyCategoryRollup::getTotal)
+                .orElse(Money.ZERO);
+    }
+    
+    // Replaces a user's rollups with values recomputed from raw expenses. On PostgreSQL the
+    // exclusive user lock waits for in-flight writers to commit, so the recomputation sees
+    // their expenses, and holds back new deltas until the rebuilt rows are committed
+    public void rebuild(@NonNull Long userId) {
+        if (postgres) {
+            rollupRepository.lockUserExclusive(userId);
+        }
+        rollupRepository.deleteByUserId(userId);
+        
+        List<MonthlyRollupRow> rows = expenseRepository.computeMonthlyRollups(userId);
+        List<MonthlyCategoryRollup> rollups = rows.stream()
+                .map(row -> new MonthlyCategoryRollup(userId, row.year(), row.month(), row.category(),
+                        row.type(), row.totalMinor(), row.count()))
+                .toList();
+        rollupRepository.saveAll(rollups);
+    }
+    
+    @Transactional(readOnly = true)
+    public boolean isEmpty() {
+        return rollupRepository.count() == 0;
+    }
+}
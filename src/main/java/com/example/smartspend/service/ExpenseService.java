@@ -2,21 +2,42 @@ package com.example.smartspend.service;
 
 import java.time.LocalDate;
 import java.util.List;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
 
+import org.hibernate.jpa.HibernateHints;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.Limit;
 import org.springframework.lang.NonNull;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
+import com.example.smartspend.dto.ExpenseCursor;
+import com.example.smartspend.dto.ExpensePage;
+import com.example.smartspend.dto.ExpenseTotals;
+import com.example.smartspend.dto.ExpenseView;
 import com.example.smartspend.entity.Category;
 import com.example.smartspend.entity.Expense;
+import com.example.smartspend.entity.Money;
+import com.example.smartspend.entity.TransactionType;
 import com.example.smartspend.entity.User;
 import com.example.smartspend.repository.ExpenseRepository;
 
+import io.micrometer.core.annotation.Timed;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+
 @Service
+@Timed(value = "smartspend.service", histogram = true)
 @Transactional
 public class ExpenseService {
     
+    public static final int MAX_PAGE_SIZE = 500;
+    
+    @PersistenceContext
+    private EntityManager entityManager;
+    
     @Autowired
     private ExpenseRepository expenseRepository;
     
@@ -24,31 +45,90 @@ public class ExpenseService {
     private UserService userService;
     
     @Autowired
-    private BudgetService budgetService;
+    private ExpenseRollupService rollupService;
+    
+    @Autowired
+    private DataVersionService dataVersionService;
+    
+    @Value("${app.export.fetch-size:500}")
+    private int exportFetchSize;
+    
+    // Reads below return ExpenseView read models rather than managed entities
+    @Transactional(readOnly = true)
+    public List<ExpenseView> getAllExpenses() {
+        return expenseRepository.findAllViews();
+    }
+    
+    @Transactional(readOnly = true)
+    public List<ExpenseView> getUserExpenses(@NonNull Long userId) {
+        return expenseRepository.findViewsByUserId(userId);
+    }
     
-    public List<Expense> getAllExpenses() {
-        return expenseRepository.findAll();
+    @Transactional(readOnly = true)
+    public List<ExpenseView> getFilteredExpenses(@NonNull Long userId, LocalDate startDate, LocalDate endDate, 
+                                               Category category, Money minAmount, Money maxAmount) {
+        return expenseRepository.findFilteredViews(userId, startDate, endDate, category, minAmount, maxAmount);
     }
     
-    public List<Expense> getUserExpenses(@NonNull Long userId) {
-        return expenseRepository.findByUserId(userId);
+    @Transactional(readOnly = true)
+    public ExpenseView getExpenseView(@NonNull Long id) {
+        return expenseRepository.findViewById(id)
+                .orElseThrow(() -> new RuntimeException("Expense not found with id: " + id));
+    }
+    
+    // Keyset pagination: one extra row is read to know whether another page follows
+    @Transactional(readOnly = true)
+    public ExpensePage getExpensePage(@NonNull Long userId, LocalDate startDate, LocalDate endDate,
+                                      Category category, Money minAmount, Money maxAmount,
+                                      ExpenseCursor cursor, int size) {
+        int pageSize = Math.max(1, Math.min(size, MAX_PAGE_SIZE));
+        List<ExpenseView> rows = expenseRepository.findFilteredPage(userId, startDate, endDate, category,
+                minAmount, maxAmount,
+                cursor != null ? cursor.date() : null,
+                cursor != null ? cursor.id() : null,
+                Limit.of(pageSize + 1));
+        
+        boolean hasMore = rows.size() > pageSize;
+        List<ExpenseView> items = hasMore ? rows.subList(0, pageSize) : rows;
+        String nextCursor = hasMore ? ExpenseCursor.of(items.get(items.size() - 1)).encode() : null;
+        return new ExpensePage(items, nextCursor, hasMore);
     }
     
-    public List<Expense> getFilteredExpenses(@NonNull Long userId, LocalDate startDate, LocalDate endDate, 
-                                           Category category, Double minAmount, Double maxAmount) {
-        return expenseRepository.findFilteredExpenses(userId, startDate, endDate, category, minAmount, maxAmount);
+    // Streams a user's expenses from a database cursor; rows are read models, so the
+    // persistence context does not grow with the result size
+    @Transactional(readOnly = true)
+    public void streamUserExpenses(@NonNull Long userId, @NonNull Consumer<ExpenseView> consumer) {
+        exportUserExpenses(userId, null, null, consumer);
+    }
+    
+    // Date-filtered cursor for exports, newest first; rows are fetched app.export.fetch-size
+    // at a time, so memory stays flat however much history is exported
+    @Transactional(readOnly = true)
+    public void exportUserExpenses(@NonNull Long userId, LocalDate startDate, LocalDate endDate,
+                                   @NonNull Consumer<ExpenseView> consumer) {
+        try (Stream<ExpenseView> expenses = entityManager.createQuery(
+                        ExpenseView.SELECT + "FROM Expense e WHERE e.user.id = :userId AND " +
+                        "(:startDate IS NULL OR e.date >= :startDate) AND " +
+                        "(:endDate IS NULL OR e.date <= :endDate) " +
+                        "ORDER BY e.date DESC, e.id DESC", ExpenseView.class)
+                .setParameter("userId", userId)
+                .setParameter("startDate", startDate)
+                .setParameter("endDate", endDate)
+                .setHint(HibernateHints.HINT_FETCH_SIZE, exportFetchSize)
+                .getResultStream()) {
+            expenses.forEach(consumer);
+        }
     }
     
     public Expense createExpense(@NonNull Long userId, @NonNull Expense expense) {
         User user = userService.findById(userId);
         expense.setUser(user);
         
+        // The rollup change is published as an event; budget alerts are evaluated
+        // asynchronously by BudgetAlertDispatcher once this transaction commits
         Expense savedExpense = expenseRepository.save(expense);
-        
-        // Check budget alerts if this is an expense (not income)
-        if (expense.getType().name().equals("EXPENSE")) {
-            budgetService.checkBudgetAlerts(userId, expense);
-        }
+        rollupService.recordAdded(userId, savedExpense);
+        dataVersionService.bump(userId);
         
         return savedExpense;
     }
@@ -61,6 +141,9 @@ public class ExpenseService {
             throw new RuntimeException("Access denied");
         }
         
+        // Take the old values out of the monthly rollup before they are overwritten
+        rollupService.recordRemoved(userId, expense);
+        
         expense.setTitle(expenseDetails.getTitle());
         expense.setAmount(expenseDetails.getAmount());
         expense.setCategory(expenseDetails.getCategory());
@@ -68,7 +151,11 @@ public class ExpenseService {
         expense.setDate(expenseDetails.getDate());
         expense.setDescription(expenseDetails.getDescription());
         
-        return expenseRepository.save(expense);
+        Expense savedExpense = expenseRepository.save(expense);
+        rollupService.recordAdded(userId, savedExpense);
+        dataVersionService.bump(userId);
+        
+        return savedExpense;
     }
     
     public void deleteExpense(@NonNull Long userId, @NonNull Long expenseId) {
@@ -79,23 +166,25 @@ public class ExpenseService {
             throw new RuntimeException("Access denied");
         }
         
+        rollupService.recordRemoved(userId, expense);
         expenseRepository.delete(expense);
+        dataVersionService.bump(userId);
+    }
+    
+    @Transactional(readOnly = true)
+    public Money getTotalExpenses(@NonNull Long userId, LocalDate startDate, LocalDate endDate) {
+        return Money.ofMinor(expenseRepository.sumAmountByType(userId, TransactionType.EXPENSE, startDate, endDate));
     }
     
-    public Double getTotalExpenses(@NonNull Long userId, LocalDate startDate, LocalDate endDate) {
-        List<Expense> expenses = expenseRepository.findByUserIdAndDateBetween(userId, startDate, endDate);
-        return expenses.stream()
-                .filter(e -> e.getType().name().equals("EXPENSE"))
-                .mapToDouble(Expense::getAmount)
-                .sum();
+    @Transactional(readOnly = true)
+    public Money getTotalIncome(@NonNull Long userId, LocalDate startDate, LocalDate endDate) {
+        return Money.ofMinor(expenseRepository.sumAmountByType(userId, TransactionType.INCOME, startDate, endDate));
     }
     
-    public Double getTotalIncome(@NonNull Long userId, LocalDate startDate, LocalDate endDate) {
-        List<Expense> expenses = expenseRepository.findByUserIdAndDateBetween(userId, startDate, endDate);
-        return expenses.stream()
-                .filter(e -> e.getType().name().equals("INCOME"))
-                .mapToDouble(Expense::getAmount)
-                .sum();
+    // Sum, count, min and max per type and category in a single grouped query
+    @Transactional(readOnly = true)
+    public ExpenseTotals getPeriodTotals(@NonNull Long userId, LocalDate startDate, LocalDate endDate) {
+        return ExpenseTotals.from(expenseRepository.aggregateByTypeAndCategory(userId, startDate, endDate));
     }
     
     // ADDITIONAL HELPER METHODS
@@ -108,27 +197,31 @@ public class ExpenseService {
         return expenseRepository.findByUserIdAndCategory(userId, category);
     }
     
+    @Transactional(readOnly = true)
     public List<Expense> getRecentExpenses(@NonNull Long userId, int limit) {
-        return expenseRepository.findByUserId(userId).stream()
-                .sorted((e1, e2) -> e2.getDate().compareTo(e1.getDate()))
-                .limit(limit)
-                .toList();
+        if (limit <= 0) {
+            return List.of();
+        }
+        return expenseRepository.findByUserIdOrderByDateDescIdDesc(userId, Limit.of(limit));
     }
     
     // Get expenses by type (EXPENSE/INCOME)
+    @Transactional(readOnly = true)
     public List<Expense> getExpensesByType(@NonNull Long userId, @NonNull String type) {
-        return expenseRepository.findByUserId(userId).stream()
-                .filter(e -> e.getType().name().equals(type))
-                .toList();
+        TransactionType transactionType;
+        try {
+            transactionType = TransactionType.valueOf(type);
+        } catch (IllegalArgumentException e) {
+            return List.of();
+        }
+        return expenseRepository.findByUserIdAndTypeOrderByDateDescIdDesc(userId, transactionType);
     }
     
     // Get total amount by category and period
-    public Double getTotalAmountByCategoryAndPeriod(@NonNull Long userId, @NonNull Category category, 
-                                                   LocalDate startDate, LocalDate endDate) {
-        List<Expense> expenses = expenseRepository.findByUserIdAndCategoryAndDateBetween(userId, category, startDate, endDate);
-        return expenses.stream()
-                .filter(e -> e.getType().name().equals("EXPENSE"))
-                .mapToDouble(Expense::getAmount)
-                .sum();
+    @Transactional(readOnly = true)
+    public Money getTotalAmountByCategoryAndPeriod(@NonNull Long userId, @NonNull Category category, 
+                                                  LocalDate startDate, LocalDate endDate) {
+        return Money.ofMinor(expenseRepository.sumAmountByTypeAndCategory(
+                userId, TransactionType.EXPENSE, category, startDate, endDate));
     }
 }
\ No newline at end of file
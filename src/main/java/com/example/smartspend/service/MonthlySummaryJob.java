@@ -0,0 +1,141 @@
+package com.example.smartspend.service;
+
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.YearMonth;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.Limit;
+import org.springframework.scheduling.TaskScheduler;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.example.smartspend.dto.SummaryRecipient;
+import com.example.smartspend.entity.SummaryRun;
+import com.example.smartspend.entity.SummaryRunStatus;
+import com.example.smartspend.repository.SummaryRunRepository;
+import com.example.smartspend.repository.UserRepository;
+
+/**
+ * Month-end driver that queues a summary email for every verified user.
+ *
+ * Users are walked in id order in chunks. Each chunk costs three queries (users, rollups,
+ * budgets) plus one batch insert into the outbox, with template rendering fanned out on a
+ * small pool. The chunk's emails and the run's progress commit in one transaction, so a
+ * restart resumes after the last completed chunk without sending anything twice.
+ */
+@Component
+public class MonthlySummaryJob {
+    
+    private static final Logger log = LoggerFactory.getLogger(MonthlySummaryJob.class);
+    
+    @Autowired
+    private MonthlySummaryService summaryService;
+    
+    @Autowired
+    private EmailService emailService;
+    
+    @Autowired
+    private UserRepository userRepository;
+    
+    @Autowired
+    private SummaryRunRepository runRepository;
+    
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+    
+    @Autowired
+    private TaskScheduler taskScheduler;
+    
+    @Value("${app.summary.chunk-size:500}")
+    private int chunkSize;
+    
+    @Value("${app.summary.render-threads:4}")
+    private int renderThreads;
+    
+    @Scheduled(cron = "${app.summary.cron:0 0 6 1 * *}")
+    public void runForPreviousMonth() {
+        run(YearMonth.now().minusMonths(1));
+    }
+    
+    // Picks up runs interrupted by a shutdown, off the startup thread
+    @EventListener(ApplicationReadyEvent.class)
+    public void resumeUnfinishedRuns() {
+        List<SummaryRun> unfinished = runRepository.findByStatus(SummaryRunStatus.RUNNING);
+        for (SummaryRun run : unfinished) {
+            YearMonth period = YearMonth.of(run.getYear(), run.getMonth());
+            taskScheduler.schedule(() -> run(period), Instant.now());
+        }
+    }
+    
+    public synchronized void run(YearMonth period) {
+        TransactionTemplate transaction = new TransactionTemplate(transactionManager);
+        Long runId = transaction.execute(status -> startOrResume(period));
+        if (runId == null) {
+            return;
+        }
+        
+        AtomicInteger threadNumber = new AtomicInteger();
+        ExecutorService renderExecutor = Executors.newFixedThreadPool(renderThreads,
+                runnable -> {
+                    Thread thread = new Thread(runnable, "summary-render-" + threadNumber.incrementAndGet());
+                    thread.setDaemon(true);
+                    return thread;
+                });
+        
+        try {
+            while (Boolean.TRUE.equals(transaction.execute(status -> processChunk(runId, period, renderExecutor)))) {
+                // next chunk
+            }
+            log.info("Monthly summaries queued for {}", period);
+        } catch (RuntimeException e) {
+            log.error("Monthly summary run for {} stopped", period, e);
+        } finally {
+            renderExecutor.shutdown();
+        }
+    }
+    
+    // Returns the run id, or null when this period has already completed
+    private Long startOrResume(YearMonth period) {
+        SummaryRun run = runRepository.findByYearAndMonth(period.getYear(), period.getMonthValue())
+                .orElseGet(() -> runRepository.save(new SummaryRun(period.getYear(), period.getMonthValue())));
+        return run.getStatus() == SummaryRunStatus.COMPLETED ? null : run.getId();
+    }
+    
+    // Processes the next chunk; returns false once every user has been handled
+    private boolean processChunk(Long runId, YearMonth period, ExecutorService renderExecutor) {
+        SummaryRun run = runRepository.findWithLockById(runId)
+                .orElseThrow(() -> new RuntimeException("Summary run not found: " + runId));
+        if (run.getStatus() == SummaryRunStatus.COMPLETED) {
+            return false;
+        }
+        
+        List<SummaryRecipient> recipients = userRepository.findRecipientsAfter(run.getLastUserId(), Limit.of(chunkSize));
+        if (recipients.isEmpty()) {
+            run.setStatus(SummaryRunStatus.COMPLETED);
+            run.setCompletedAt(LocalDateTime.now());
+            return false;
+        }
+        
+        if (emailService.isEmailConfigured()) {
+            emailService.enqueueMonthlySummaries(summaryService.renderSummaries(
+                    recipients, period.getMonthValue(), period.getYear(), renderExecutor));
+        }
+        
+        run.setLastUserId(recipients.get(recipients.size() - 1).id());
+        run.setProcessedUsers(run.getProcessedUsers() + recipients.size());
+        run.setUpdatedAt(LocalDateTime.now());
+        return true;
+    }
+}
@@ -1,9 +1,12 @@
 package com.example.smartspend.service;
 
-import java.time.LocalDate;
 import java.util.ArrayList;
 import java.util.List;
 import java.util.Map;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
 import java.util.stream.Collectors;
 
 import org.springframework.beans.factory.annotation.Autowired;
@@ -11,19 +14,37 @@ import org.springframework.lang.NonNull;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
+import com.example.smartspend.dto.SummaryRecipient;
 import com.example.smartspend.entity.Budget;
 import com.example.smartspend.entity.Category;
-import com.example.smartspend.entity.Expense;
+import com.example.smartspend.entity.EmailOutboxMessage;
+import com.example.smartspend.entity.Money;
+import com.example.smartspend.entity.MonthlyCategoryRollup;
+import com.example.smartspend.entity.TransactionType;
 import com.example.smartspend.entity.User;
 import com.example.smartspend.repository.BudgetRepository;
-import com.example.smartspend.repository.ExpenseRepository;
+import com.example.smartspend.repository.MonthlyCategoryRollupRepository;
+
+import io.micrometer.core.annotation.Timed;
 
 @Service
+@Timed(value = "smartspend.service", histogram = true)
 @Transactional
 public class MonthlySummaryService {
     
+    public record MonthlySummary(
+            Money totalIncome,
+            Money totalExpenses,
+            List<EmailService.BudgetStatus> budgetStatus,
+            List<EmailService.CategorySpending> topCategories) {}
+    
+    private static final Category[] CATEGORIES = Category.values();
+    
     @Autowired
-    private ExpenseRepository expenseRepository;
+    private ExpenseRollupService rollupService;
+    
+    @Autowired
+    private MonthlyCategoryRollupRepository rollupRepository;
     
     @Autowired
     private BudgetRepository budgetRepository;
@@ -35,58 +56,98 @@ public class MonthlySummaryService {
     private UserService userService;
     
     public void generateAndSendMonthlySummary(@NonNull Long userId, int month, int year) {
-        LocalDate startDate = LocalDate.of(year, month, 1);
-        LocalDate endDate = startDate.withDayOfMonth(startDate.lengthOfMonth());
+        // One indexed read of the maintained rollup replaces scanning the month's expenses
+        List<MonthlyCategoryRollup> rollups = rollupService.getMonth(userId, year, month);
+        List<Budget> monthlyBudgets = budgetRepository.findByUserIdAndMonthAndYear(userId, month, year);
+        MonthlySummary summary = summarize(rollups, monthlyBudgets);
         
-        List<Expense> monthlyExpenses = expenseRepository.findByUserIdAndDateBetween(userId, startDate, endDate);
+        User user = userService.findById(userId);
+        emailService.sendMonthlySummaryEmail(user.getEmail(), month, year, summary.totalIncome(), 
+                                           summary.totalExpenses(), summary.budgetStatus(), summary.topCategories());
+    }
+    
+    // Summaries for a whole chunk of users from two set-based queries; rendering is fanned out on the executor
+    public List<EmailOutboxMessage> renderSummaries(@NonNull List<SummaryRecipient> recipients, int month, int year,
+                                                    @NonNull ExecutorService renderExecutor) {
+        List<Long> userIds = recipients.stream().map(SummaryRecipient::id).toList();
         
-        Double totalIncome = monthlyExpenses.stream()
-                .filter(e -> e.getType().name().equals("INCOME"))
-                .mapToDouble(Expense::getAmount)
-                .sum();
+        Map<Long, List<MonthlyCategoryRollup>> rollupsByUser = rollupRepository
+                .findByUserIdInAndYearAndMonth(userIds, year, month).stream()
+                .collect(Collectors.groupingBy(MonthlyCategoryRollup::getUserId));
+        Map<Long, List<Budget>> budgetsByUser = budgetRepository
+                .findByUserIdInAndMonthAndYear(userIds, month, year).stream()
+                .collect(Collectors.groupingBy(budget -> budget.getUser().getId()));
         
-        Double totalExpenses = monthlyExpenses.stream()
-                .filter(e -> e.getType().name().equals("EXPENSE"))
-                .mapToDouble(Expense::getAmount)
-                .sum();
+        List<Callable<EmailOutboxMessage>> renders = new ArrayList<>(recipients.size());
+        for (SummaryRecipient recipient : recipients) {
+            MonthlySummary summary = summarize(
+                    rollupsByUser.getOrDefault(recipient.id(), List.of()),
+                    budgetsByUser.getOrDefault(recipient.id(), List.of()));
+            renders.add(() -> emailService.renderMonthlySummary(recipient.email(), month, year,
+                    summary.totalIncome(), summary.totalExpenses(), summary.budgetStatus(), summary.topCategories()));
+        }
+        
+        List<EmailOutboxMessage> messages = new ArrayList<>(renders.size());
+        try {
+            for (Future<EmailOutboxMessage> rendered : renderExecutor.invokeAll(renders)) {
+                messages.add(rendered.get());
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new RuntimeException("Interrupted while rendering monthly summaries", e);
+        } catch (ExecutionException e) {
+            throw new RuntimeException("Failed to render monthly summary: " + e.getCause().getMessage(), e.getCause());
+        }
+        return messages;
+    }
+    
+    // Sums minor units into primitive longs, one slot per category, so the totals are exact and
+    // the fold allocates nothing per rollup row
+    public MonthlySummary summarize(@NonNull List<MonthlyCategoryRollup> rollups, @NonNull List<Budget> monthlyBudgets) {
+        long totalIncome = 0;
+        long totalExpenses = 0;
+        long[] categorySpending = new long[CATEGORIES.length];
+        
+        for (MonthlyCategoryRollup rollup : rollups) {
+            long total = rollup.getTotalMinor();
+            if (rollup.getType() == TransactionType.INCOME) {
+                totalIncome += total;
+            } else {
+                totalExpenses += total;
+                categorySpending[rollup.getCategory().ordinal()] += total;
+            }
+        }
         
-        List<Budget> monthlyBudgets = budgetRepository.findByUserIdAndMonthAndYear(userId, month, year);
         List<EmailService.BudgetStatus> budgetStatusList = new ArrayList<>();
         
         for (Budget budget : monthlyBudgets) {
-            Double spent = expenseRepository.getTotalExpenseByCategoryAndMonth(userId, budget.getCategory(), year, month);
-            if (spent == null) spent = 0.0;
-            Double utilization = (spent / budget.getAmount()) * 100;
+            Money spent = Money.ofMinor(categorySpending[budget.getCategory().ordinal()]);
             
             budgetStatusList.add(new EmailService.BudgetStatus(
                 budget.getCategory(), 
                 budget.getAmount(), 
                 spent, 
-                utilization
+                spent.percentOf(budget.getAmount())
             ));
         }
         
-        Map<Category, Double> categorySpending = monthlyExpenses.stream()
-                .filter(e -> e.getType().name().equals("EXPENSE"))
-                .collect(Collectors.groupingBy(
-                    Expense::getCategory,
-                    Collectors.summingDouble(Expense::getAmount)
-                ));
-        
-        Double totalSpending = categorySpending.values().stream().mapToDouble(Double::doubleValue).sum();
+        Money totalSpending = Money.ofMinor(totalExpenses);
         
-        List<EmailService.CategorySpending> topCategories = categorySpending.entrySet().stream()
-                .map(entry -> new EmailService.CategorySpending(
-                    entry.getKey().toString(),
-                    entry.getValue(),
-                    totalSpending > 0 ? (entry.getValue() / totalSpending) * 100 : 0.0
-                ))
-                .sorted((a, b) -> Double.compare(b.getAmount(), a.getAmount()))
-                .limit(5)
-                .collect(Collectors.toList());
+        List<EmailService.CategorySpending> topCategories = new ArrayList<>();
+        for (Category category : CATEGORIES) {
+            long spent = categorySpending[category.ordinal()];
+            if (spent > 0) {
+                Money amount = Money.ofMinor(spent);
+                topCategories.add(new EmailService.CategorySpending(
+                    category.toString(),
+                    amount,
+                    amount.percentOf(totalSpending)
+                ));
+            }
+        }
+        topCategories.sort((a, b) -> b.getAmount().compareTo(a.getAmount()));
         
-        User user = userService.findById(userId);
-        emailService.sendMonthlySummaryEmail(user.getEmail(), month, year, totalIncome, totalExpenses, 
-                                           budgetStatusList, topCategories);
+        return new MonthlySummary(Money.ofMinor(totalIncome), totalSpending, budgetStatusList,
+                topCategories.size() > 5 ? new ArrayList<>(topCategories.subList(0, 5)) : topCategories);
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,55 @@
+package com.example.smartspend.service;
+
+import java.util.List;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.slf4j.MDC;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import com.example.smartspend.config.RequestCorrelationFilter;
+import com.example.smartspend.repository.ExpenseRepository;
+import com.example.smartspend.repository.UserRepository;
+
+/**
+ * Rebuilds every user's monthly rollups from raw expenses. Runs nightly to repair any drift
+ * and once at startup when the rollup table has never been populated.
+ */
+@Component
+public class RollupReconcileJob {
+    
+    private static final Logger log = LoggerFactory.getLogger(RollupReconcileJob.class);
+    
+    @Autowired
+    private ExpenseRollupService rollupService;
+    
+    @Autowired
+    private UserRepository userRepository;
+    
+    @Autowired
+    private ExpenseRepository expenseRepository;
+    
+    @EventListener(ApplicationReadyEvent.class)
+    public void populateIfEmpty() {
+        if (rollupService.isEmpty() && expenseRepository.count() > 0) {
+            reconcileAll();
+        }
+    }
+    
+    @Scheduled(cron = "${app.rollup.reconcile-cron:0 30 3 * * *}")
+    public void reconcileAll() {
+        List<Long> userIds = userRepository.findAllIds();
+        for (Long userId : userIds) {
+            try (MDC.MDCCloseable ignored = MDC.putCloseable(RequestCorrelationFilter.USER_ID_KEY, userId.toString())) {
+                // Each user is rebuilt in its own transaction
+                rollupService.rebuild(userId);
+            } catch (RuntimeException e) {
+                log.error("Error rebuilding rollups for user {}", userId, e);
+            }
+        }
+    }
+}
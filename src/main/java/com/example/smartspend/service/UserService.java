@@ -11,6 +11,7 @@ import org.springframework.transaction.annotation.Transactional;
 
 import com.example.smartspend.entity.User;
 import com.example.smartspend.repository.UserRepository;
+import com.example.smartspend.security.UserDetailsCache;
 
 @Service
 @Transactional
@@ -25,6 +26,9 @@ public class UserService {
     @Autowired
     private EmailService emailService;
     
+    @Autowired
+    private UserDetailsCache userDetailsCache;
+    
     public User registerUser(@NonNull User user) {
         if (userRepository.existsByEmail(user.getEmail())) {
             throw new RuntimeException("Email already exists");
@@ -48,6 +52,7 @@ public class UserService {
             user.setEnabled(true);
             user.setVerificationToken(null);
             userRepository.save(user);
+            userDetailsCache.evict(user.getEmail());
             return true;
         }
         return false;
@@ -67,6 +72,12 @@ public class UserService {
         return passwordEncoder.matches(rawPassword, encodedPassword);
     }
     public User updateUser(User user) {
-    return userRepository.save(user);
-}
+        // Evict under the stored email too, in case this update changes it
+        String previousEmail = user.getId() != null
+                ? userRepository.findEmailById(user.getId()).orElse(null)
+                : null;
+        User savedUser = userRepository.save(user);
+        userDetailsCache.evict(previousEmail, savedUser.getEmail());
+        return savedUser;
+    }
 }
\ No newline at end of file
@@ -0,0 +1,33 @@
+package com.example.smartspend.config;
+
+import java.util.concurrent.Callable;
+
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Test helper for pinning the number of SQL statements a piece of work issues. Counts
+ * through the same QueryCounter scope QueryCountFilter uses, so a MockMvc request can be
+ * wrapped whole, security filters included.
+ */
+public final class QueryCountAssertions {
+    
+    private QueryCountAssertions() {
+    }
+    
+    public static int countStatements(Callable<?> work) throws Exception {
+        QueryCounter.begin();
+        try {
+            work.call();
+        } catch (Exception e) {
+            QueryCounter.end();
+            throw e;
+        }
+        return QueryCounter.end().statements();
+    }
+    
+    public static int assertMaxStatements(int max, Callable<?> work) throws Exception {
+        int statements = countStatements(work);
+        assertTrue(statements <= max, "Expected at most " + max + " SQL statements but " + statements + " were issued");
+        return statements;
+    }
+}
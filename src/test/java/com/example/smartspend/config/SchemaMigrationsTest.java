@@ -0,0 +1,21 @@
+package com.example.smartspend.config;
+
+import org.junit.jupiter.api.Test;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import com.example.smartspend.entity.Category;
+import com.example.smartspend.entity.TransactionType;
+
+class SchemaMigrationsTest {
+
+    // Migration 2 maps legacy names to codes by list position; it has to agree with the enums
+    @Test
+    void codeMigrationNames_MatchTheEnumCodes() {
+        for (int i = 0; i < SchemaMigrations.V2_CATEGORY_NAMES.size(); i++) {
+            assertEquals(Category.fromCode((short) (i + 1)).name(), SchemaMigrations.V2_CATEGORY_NAMES.get(i));
+        }
+        for (int i = 0; i < SchemaMigrations.V2_TYPE_NAMES.size(); i++) {
+            assertEquals(TransactionType.fromCode((short) (i + 1)).name(), SchemaMigrations.V2_TYPE_NAMES.get(i));
+        }
+    }
+}
@@ -0,0 +1,68 @@
+package com.example.smartspend.controller;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.actuate.observability.AutoConfigureObservability;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.test.web.servlet.MockMvc;
+import static org.springframework.security.test.web.servlet.request.SecurityMockMvcRequestPostProcessors.httpBasic;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+import com.example.smartspend.entity.User;
+import com.example.smartspend.repository.UserRepository;
+import com.example.smartspend.security.JwtUtil;
+
+// Probes stay open; metrics and the Prometheus scrape are admin only
+@SpringBootTest(properties = {
+        "spring.datasource.url=jdbc:h2:mem:actuatorsecurity;DB_CLOSE_DELAY=-1;MODE=PostgreSQL",
+        "spring.datasource.driver-class-name=org.h2.Driver",
+        "spring.datasource.username=sa",
+        "spring.datasource.password=",
+        "spring.jpa.database-platform=org.hibernate.dialect.H2Dialect",
+        "spring.jpa.hibernate.ddl-auto=create-drop"
+})
+@AutoConfigureMockMvc
+// Tests disable metrics export by default, which would leave /actuator/prometheus unmapped
+@AutoConfigureObservability
+class ActuatorSecurityTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private PasswordEncoder passwordEncoder;
+
+    @Autowired
+    private JwtUtil jwtUtil;
+
+    @Test
+    void prometheusRequiresAnAdmin_HealthStaysOpen() throws Exception {
+        User user = new User("metrics-user@example.com", passwordEncoder.encode("secret"), "Metrics", "User");
+        user.setEnabled(true);
+        userRepository.save(user);
+        User admin = new User("metrics-admin@example.com", passwordEncoder.encode("secret"), "Metrics", "Admin");
+        admin.setEnabled(true);
+        admin.setRole(User.Role.ROLE_ADMIN);
+        userRepository.save(admin);
+
+        mockMvc.perform(get("/actuator/health")).andExpect(status().isOk());
+        mockMvc.perform(get("/actuator/prometheus")).andExpect(status().isUnauthorized());
+        mockMvc.perform(get("/actuator/prometheus")
+                        .header("Authorization", "Bearer " + jwtUtil.generateToken(user.getEmail())))
+                .andExpect(status().isForbidden());
+        mockMvc.perform(get("/actuator/prometheus").with(httpBasic("metrics-user@example.com", "secret")))
+                .andExpect(status().isForbidden());
+
+        mockMvc.perform(get("/actuator/prometheus").with(httpBasic("metrics-admin@example.com", "secret")))
+                .andExpect(status().isOk());
+        mockMvc.perform(get("/actuator/prometheus")
+                        .header("Authorization", "Bearer " + jwtUtil.generateToken(admin.getEmail())))
+                .andExpect(status().isOk());
+    }
+}
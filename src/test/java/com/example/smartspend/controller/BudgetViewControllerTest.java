@@ -0,0 +1,77 @@
+package com.example.smartspend.controller;
+
+import java.time.LocalDate;
+
+import static org.hamcrest.Matchers.containsString;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.web.servlet.MockMvc;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.model;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.view;
+
+import com.example.smartspend.entity.Budget;
+import com.example.smartspend.entity.Category;
+import com.example.smartspend.entity.Expense;
+import com.example.smartspend.entity.Money;
+import com.example.smartspend.entity.TransactionType;
+import com.example.smartspend.entity.User;
+import com.example.smartspend.repository.BudgetRepository;
+import com.example.smartspend.repository.UserRepository;
+import com.example.smartspend.security.JwtUtil;
+import com.example.smartspend.service.ExpenseService;
+
+// Renders the HTML budget pages end to end, templates included
+@SpringBootTest(properties = {
+        "spring.datasource.url=jdbc:h2:mem:budgetview;DB_CLOSE_DELAY=-1;MODE=PostgreSQL",
+        "spring.datasource.driver-class-name=org.h2.Driver",
+        "spring.datasource.username=sa",
+        "spring.datasource.password=",
+        "spring.jpa.database-platform=org.hibernate.dialect.H2Dialect",
+        "spring.jpa.hibernate.ddl-auto=create-drop"
+})
+@AutoConfigureMockMvc
+class BudgetViewControllerTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private BudgetRepository budgetRepository;
+
+    @Autowired
+    private ExpenseService expenseService;
+
+    @Autowired
+    private JwtUtil jwtUtil;
+
+    @Test
+    void budgetDetailsRendersWithRemainingAmount() throws Exception {
+        User user = new User("budget-view@example.com", "password", "Budget", "View");
+        user.setEnabled(true);
+        user = userRepository.save(user);
+
+        LocalDate today = LocalDate.now();
+        Budget budget = new Budget(Category.FOOD, Money.valueOf("300"), today.getMonthValue(), today.getYear());
+        budget.setUser(user);
+        budget = budgetRepository.save(budget);
+
+        // Through the service so the monthly rollup row the page reads is maintained
+        expenseService.createExpense(user.getId(), new Expense("Groceries", Money.valueOf("49.50"),
+                Category.FOOD, TransactionType.EXPENSE, today, null));
+
+        mockMvc.perform(get("/budgets/view/" + budget.getId())
+                        .header("Authorization", "Bearer " + jwtUtil.generateToken(user.getEmail())))
+                .andExpect(status().isOk())
+                .andExpect(view().name("budget-details"))
+                .andExpect(model().attribute("remaining", "250.50"))
+                .andExpect(content().string(containsString("$300.00")));
+    }
+}
@@ -0,0 +1,77 @@
+package com.example.smartspend.controller;
+
+import org.junit.jupiter.api.Test;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.test.web.servlet.MockMvc;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+import com.example.smartspend.entity.User;
+import com.example.smartspend.repository.UserRepository;
+import com.example.smartspend.security.JwtUtil;
+import static com.example.smartspend.config.QueryCountAssertions.countStatements;
+
+// Polling with If-None-Match: 304 without SQL until the user's data changes
+@SpringBootTest(properties = {
+        "spring.datasource.url=jdbc:h2:mem:conditionalget;DB_CLOSE_DELAY=-1;MODE=PostgreSQL",
+        "spring.datasource.driver-class-name=org.h2.Driver",
+        "spring.datasource.username=sa",
+        "spring.datasource.password=",
+        "spring.jpa.database-platform=org.hibernate.dialect.H2Dialect",
+        "spring.jpa.hibernate.ddl-auto=create-drop"
+})
+@AutoConfigureMockMvc
+class ConditionalGetControllerTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private JwtUtil jwtUtil;
+
+    @Test
+    void unchangedDataIsAnswered304WithoutQueries_UntilAnExpenseIsWritten() throws Exception {
+        User user = new User("etag@example.com", "password", "Etag", "User");
+        user.setEnabled(true);
+        user = userRepository.save(user);
+        String token = "Bearer " + jwtUtil.generateToken(user.getEmail());
+        String path = "/expenses/user/" + user.getId();
+
+        String etag = mockMvc.perform(get(path).header("Authorization", token))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getHeader(HttpHeaders.ETAG);
+        assertNotNull(etag);
+
+        int statements = countStatements(() -> mockMvc.perform(get(path)
+                        .header("Authorization", token)
+                        .header(HttpHeaders.IF_NONE_MATCH, etag))
+                .andExpect(status().isNotModified())
+                .andReturn());
+        assertEquals(0, statements);
+
+        mockMvc.perform(post("/expenses/user/" + user.getId() + "/import")
+                        .header("Authorization", token)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("[{\"title\":\"Lunch\",\"amount\":12.5,\"category\":\"FOOD\"," +
+                                 "\"type\":\"EXPENSE\",\"date\":\"2025-03-10\"}]"))
+                .andExpect(status().isOk());
+
+        String changed = mockMvc.perform(get(path)
+                        .header("Authorization", token)
+                        .header(HttpHeaders.IF_NONE_MATCH, etag))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getHeader(HttpHeaders.ETAG);
+        assertNotEquals(etag, changed);
+    }
+}
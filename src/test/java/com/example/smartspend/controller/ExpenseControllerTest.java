@@ -0,0 +1,20 @@
+package com.example.smartspend.controller;
+
+import org.junit.jupiter.api.Test;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class ExpenseControllerTest {
+
+    @Test
+    void acceptsGzip_HonoursQualityValues() {
+        assertTrue(ExpenseController.acceptsGzip("gzip, deflate, br"));
+        assertTrue(ExpenseController.acceptsGzip("br;q=1.0, GZIP;q=0.5"));
+        assertTrue(ExpenseController.acceptsGzip("*"));
+        assertFalse(ExpenseController.acceptsGzip(null));
+        assertFalse(ExpenseController.acceptsGzip("identity"));
+        assertFalse(ExpenseController.acceptsGzip("gzip;q=0"));
+        assertFalse(ExpenseController.acceptsGzip("gzip; q=0.000, deflate"));
+        assertFalse(ExpenseController.acceptsGzip("*;q=1, gzip;q=0"));
+    }
+}
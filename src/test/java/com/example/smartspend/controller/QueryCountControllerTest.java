@@ -0,0 +1,113 @@
+package com.example.smartspend.controller;
+
+import java.time.LocalDate;
+
+import org.junit.jupiter.api.Test;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.web.servlet.MockMvc;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+import com.example.smartspend.entity.Budget;
+import com.example.smartspend.entity.Category;
+import com.example.smartspend.entity.Expense;
+import com.example.smartspend.entity.Money;
+import com.example.smartspend.entity.TransactionType;
+import com.example.smartspend.entity.User;
+import com.example.smartspend.repository.BudgetRepository;
+import com.example.smartspend.repository.ExpenseRepository;
+import com.example.smartspend.repository.UserRepository;
+import com.example.smartspend.security.JwtUtil;
+import static com.example.smartspend.config.QueryCountAssertions.assertMaxStatements;
+import static com.example.smartspend.config.QueryCountAssertions.countStatements;
+
+// Pins the SQL issued by the list endpoints: the count must not grow with the number of rows returned
+@SpringBootTest(properties = {
+        "spring.datasource.url=jdbc:h2:mem:querycount;DB_CLOSE_DELAY=-1;MODE=PostgreSQL",
+        "spring.datasource.driver-class-name=org.h2.Driver",
+        "spring.datasource.username=sa",
+        "spring.datasource.password=",
+        "spring.jpa.database-platform=org.hibernate.dialect.H2Dialect",
+        "spring.jpa.hibernate.ddl-auto=create-drop"
+})
+@AutoConfigureMockMvc
+class QueryCountControllerTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private ExpenseRepository expenseRepository;
+
+    @Autowired
+    private BudgetRepository budgetRepository;
+
+    @Autowired
+    private JwtUtil jwtUtil;
+
+    @Test
+    void userExpensesIssueSameStatementsRegardlessOfRowCount() throws Exception {
+        User small = createUser("few-expenses@example.com", 3, 1);
+        User large = createUser("many-expenses@example.com", 40, 1);
+
+        int smallCount = measure(small, "/expenses/user/" + small.getId());
+        int largeCount = measure(large, "/expenses/user/" + large.getId());
+
+        assertTrue(smallCount > 0);
+        assertEquals(smallCount, largeCount);
+        assertMaxStatements(3, () -> request(large, "/expenses/user/" + large.getId()));
+        assertMaxStatements(3, () -> request(large, "/expenses/user/" + large.getId() + "/page?size=20"));
+    }
+
+    @Test
+    void userBudgetsIssueSameStatementsRegardlessOfRowCount() throws Exception {
+        User small = createUser("few-budgets@example.com", 0, 2);
+        User large = createUser("many-budgets@example.com", 0, 12);
+
+        int smallCount = measure(small, "/budgets/user/" + small.getId());
+        int largeCount = measure(large, "/budgets/user/" + large.getId());
+
+        assertTrue(smallCount > 0);
+        assertEquals(smallCount, largeCount);
+        assertMaxStatements(3, () -> request(large, "/budgets/user/" + large.getId()));
+    }
+
+    // First call warms the authenticated-principal cache so both users are measured alike
+    private int measure(User user, String path) throws Exception {
+        request(user, path);
+        return countStatements(() -> request(user, path));
+    }
+
+    private Object request(User user, String path) throws Exception {
+        return mockMvc.perform(get(path).header("Authorization", "Bearer " + jwtUtil.generateToken(user.getEmail())))
+                .andExpect(status().isOk())
+                .andReturn();
+    }
+
+    private User createUser(String email, int expenses, int budgets) {
+        User user = new User(email, "password", "Query", "Count");
+        user.setEnabled(true);
+        user = userRepository.save(user);
+
+        LocalDate start = LocalDate.of(2025, 1, 1);
+        for (int i = 0; i < expenses; i++) {
+            Expense expense = new Expense("Expense " + i, Money.ofMinor(1000 + i * 100L), Category.FOOD, TransactionType.EXPENSE,
+                    start.plusDays(i), null);
+            expense.setUser(user);
+            expenseRepository.save(expense);
+        }
+        for (int month = 1; month <= budgets; month++) {
+            Budget budget = new Budget(Category.FOOD, Money.of(500), month, 2025);
+            budget.setUser(user);
+            budgetRepository.save(budget);
+        }
+        return user;
+    }
+}
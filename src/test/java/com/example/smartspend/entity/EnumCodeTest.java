@@ -0,0 +1,25 @@
+package com.example.smartspend.entity;
+
+import org.junit.jupiter.api.Test;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class EnumCodeTest {
+
+    @Test
+    void codes_AreStableAndRoundTrip() {
+        assertEquals(1, Category.FOOD.code());
+        assertEquals(23, Category.OTHER.code());
+        assertEquals(1, TransactionType.EXPENSE.code());
+        assertEquals(2, TransactionType.INCOME.code());
+
+        for (Category category : Category.values()) {
+            assertEquals(category, Category.fromCode(category.code()));
+        }
+        for (TransactionType type : TransactionType.values()) {
+            assertEquals(type, TransactionType.fromCode(type.code()));
+        }
+        assertThrows(IllegalArgumentException.class, () -> Category.fromCode((short) 0));
+        assertThrows(IllegalArgumentException.class, () -> TransactionType.fromCode((short) 3));
+    }
+}
@@ -0,0 +1,51 @@
+package com.example.smartspend.entity;
+
+import org.junit.jupiter.api.Test;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import com.example.smartspend.dto.ExpenseRequest;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.exc.InvalidFormatException;
+
+class MoneyTest {
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+
+    @Test
+    void sumsOfMinorUnits_AreExact() {
+        double doubleTotal = 0;
+        long minorTotal = 0;
+        for (int i = 0; i < 10; i++) {
+            doubleTotal += 0.1;
+            minorTotal += Money.of(0.1).minorUnits();
+        }
+
+        assertNotEquals(1.0, doubleTotal);
+        assertEquals(Money.of(1), Money.ofMinor(minorTotal));
+        assertEquals("1.00", Money.ofMinor(minorTotal).toString());
+    }
+
+    @Test
+    void parsing_RoundsHalfUpToTheCent() {
+        assertEquals(1235, Money.valueOf("12.345").minorUnits());
+        assertEquals(-1250, Money.valueOf(" -12.5 ").minorUnits());
+        assertEquals(101, Money.of(1.005).minorUnits());
+        assertThrows(IllegalArgumentException.class, () -> Money.valueOf("12,50"));
+        assertThrows(IllegalArgumentException.class, () -> Money.of(Double.NaN));
+    }
+
+    @Test
+    void json_IsAPlainNumberWithTwoDecimals() throws JsonProcessingException {
+        assertEquals("12.50", objectMapper.writeValueAsString(Money.ofMinor(1250)));
+
+        ExpenseRequest fromNumber = objectMapper.readValue("{\"amount\": 0.29}", ExpenseRequest.class);
+        ExpenseRequest fromString = objectMapper.readValue("{\"amount\": \"7\"}", ExpenseRequest.class);
+        assertEquals(29, fromNumber.getAmount().minorUnits());
+        assertEquals(700, fromString.getAmount().minorUnits());
+        assertThrows(InvalidFormatException.class,
+                () -> objectMapper.readValue("{\"amount\": \"abc\"}", ExpenseRequest.class));
+    }
+}
@@ -0,0 +1,85 @@
+package com.example.smartspend.repository;
+
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+
+import com.example.smartspend.dto.BudgetSummary;
+import com.example.smartspend.dto.BudgetUtilization;
+import com.example.smartspend.entity.Budget;
+import com.example.smartspend.entity.BudgetAlertState;
+import com.example.smartspend.entity.Category;
+import com.example.smartspend.entity.Money;
+import com.example.smartspend.entity.MonthlyCategoryRollup;
+import com.example.smartspend.entity.TransactionType;
+import com.example.smartspend.entity.User;
+
+@DataJpaTest(properties = {
+        "spring.jpa.database-platform=org.hibernate.dialect.H2Dialect"
+})
+class BudgetRepositoryTest {
+
+    @Autowired
+    private TestEntityManager entityManager;
+
+    @Autowired
+    private BudgetRepository budgetRepository;
+
+    @Test
+    void transitionAlertState_OnlyMovesFromExpectedState() {
+        User user = entityManager.persist(new User("budget@example.com", "password123", "Jane", "Doe"));
+        Budget budget = new Budget(Category.FOOD, Money.of(100), 3, 2025);
+        budget.setUser(user);
+        budget.setAlertState(null);
+        Long id = entityManager.persistAndFlush(budget).getId();
+
+        // A legacy row without state counts as NONE
+        assertEquals(1, budgetRepository.transitionAlertState(id, BudgetAlertState.NONE, BudgetAlertState.WARNED));
+        assertEquals(0, budgetRepository.transitionAlertState(id, BudgetAlertState.NONE, BudgetAlertState.WARNED));
+        assertEquals(1, budgetRepository.transitionAlertState(id, BudgetAlertState.WARNED, BudgetAlertState.EXCEEDED));
+
+        assertEquals(BudgetAlertState.EXCEEDED, budgetRepository.findById(id).orElseThrow().getAlertState());
+    }
+
+    @Test
+    void findPeriodUtilization_JoinsMonthlyExpenseRollup() {
+        User user = entityManager.persist(new User("utilization@example.com", "password123", "Jane", "Doe"));
+        persistBudget(user, Category.FOOD, 200.0, 3, 2025);
+        persistBudget(user, Category.TRANSPORTATION, 50.0, 3, 2025);
+        persistBudget(user, Category.FOOD, 80.0, 2, 2025);
+        entityManager.persist(new MonthlyCategoryRollup(user.getId(), 2025, 3, Category.FOOD,
+                TransactionType.EXPENSE, 15000L, 4L));
+        // Income and other months must not count toward the March food budget
+        entityManager.persist(new MonthlyCategoryRollup(user.getId(), 2025, 3, Category.FOOD,
+                TransactionType.INCOME, 99900L, 1L));
+        entityManager.persist(new MonthlyCategoryRollup(user.getId(), 2025, 2, Category.FOOD,
+                TransactionType.EXPENSE, 99900L, 1L));
+        entityManager.flush();
+
+        List<BudgetUtilization> march = budgetRepository.findPeriodUtilization(user.getId(), 3, 2025);
+
+        assertEquals(2, march.size());
+        BudgetUtilization food = march.get(0);
+        assertEquals(Category.FOOD, food.category());
+        assertEquals(Money.of(150), food.spent());
+        assertEquals(75.0, food.utilization());
+        assertEquals(Money.of(50), food.remaining());
+        // No rollup row yet: nothing spent
+        assertEquals(Money.ZERO, march.get(1).spent());
+
+        BudgetSummary summary = budgetRepository.summarize(user.getId(), 3, 2025);
+        assertEquals(3L, summary.budgetCount());
+        assertEquals(33000L, summary.totalMinor());
+        assertEquals(2L, summary.activeBudgets());
+    }
+
+    private void persistBudget(User user, Category category, double amount, int month, int year) {
+        Budget budget = new Budget(category, Money.of(amount), month, year);
+        budget.setUser(user);
+        entityManager.persist(budget);
+    }
+}
@@ -0,0 +1,136 @@
+package com.example.smartspend.repository;
+
+import java.time.LocalDate;
+import java.util.List;
+
+import org.hibernate.Session;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.data.domain.Limit;
+
+import com.example.smartspend.dto.ExpenseAggregate;
+import com.example.smartspend.dto.ExpenseView;
+import com.example.smartspend.dto.MonthlyRollupRow;
+import com.example.smartspend.entity.Category;
+import com.example.smartspend.entity.Expense;
+import com.example.smartspend.entity.Money;
+import com.example.smartspend.entity.TransactionType;
+import com.example.smartspend.entity.User;
+
+@DataJpaTest(properties = {
+        "spring.jpa.database-platform=org.hibernate.dialect.H2Dialect"
+})
+class ExpenseRepositoryTest {
+
+    @Autowired
+    private TestEntityManager entityManager;
+
+    @Autowired
+    private ExpenseRepository expenseRepository;
+
+    private User user;
+
+    @BeforeEach
+    void setUp() {
+        user = entityManager.persist(new User("repo@example.com", "password123", "John", "Doe"));
+
+        persist("Lunch", 12.5, Category.FOOD, TransactionType.EXPENSE, LocalDate.of(2025, 3, 2));
+        persist("Dinner", 30.0, Category.FOOD, TransactionType.EXPENSE, LocalDate.of(2025, 3, 20));
+        persist("Bus", 2.5, Category.TRANSPORTATION, TransactionType.EXPENSE, LocalDate.of(2025, 3, 5));
+        persist("Salary", 1000.0, Category.OTHER, TransactionType.INCOME, LocalDate.of(2025, 3, 1));
+        persist("Last month", 99.0, Category.FOOD, TransactionType.EXPENSE, LocalDate.of(2025, 2, 28));
+        entityManager.flush();
+        entityManager.clear();
+    }
+
+    @Test
+    void aggregateByTypeAndCategory_GroupsWithinPeriod() {
+        List<ExpenseAggregate> aggregates = expenseRepository.aggregateByTypeAndCategory(
+                user.getId(), LocalDate.of(2025, 3, 1), LocalDate.of(2025, 3, 31));
+
+        assertEquals(3, aggregates.size());
+
+        ExpenseAggregate food = aggregates.stream()
+                .filter(a -> a.category() == Category.FOOD)
+                .findFirst()
+                .orElseThrow();
+        assertEquals(TransactionType.EXPENSE, food.type());
+        assertEquals(Money.of(42.5), food.total());
+        assertEquals(2L, food.count());
+        assertEquals(Money.of(12.5), food.min());
+        assertEquals(Money.of(30), food.max());
+    }
+
+    @Test
+    void sumAmountByType_ReturnsZeroWhenNothingMatches() {
+        LocalDate start = LocalDate.of(2025, 3, 1);
+        LocalDate end = LocalDate.of(2025, 3, 31);
+
+        assertEquals(4500L, expenseRepository.sumAmountByType(user.getId(), TransactionType.EXPENSE, start, end));
+        assertEquals(100000L, expenseRepository.sumAmountByType(user.getId(), TransactionType.INCOME, start, end));
+        assertEquals(0L, expenseRepository.sumAmountByType(user.getId(), TransactionType.INCOME,
+                LocalDate.of(2024, 1, 1), LocalDate.of(2024, 1, 31)));
+        assertEquals(4250L, expenseRepository.sumAmountByTypeAndCategory(
+                user.getId(), TransactionType.EXPENSE, Category.FOOD, start, end));
+    }
+
+    @Test
+    void findByUserIdOrderByDateDescIdDesc_ReturnsNewestWithinLimit() {
+        List<Expense> recent = expenseRepository.findByUserIdOrderByDateDescIdDesc(user.getId(), Limit.of(3));
+
+        assertEquals(List.of("Dinner", "Bus", "Lunch"), recent.stream().map(Expense::getTitle).toList());
+    }
+
+    @Test
+    void findViewsByUserId_LeavesPersistenceContextEmpty() {
+        List<ExpenseView> views = expenseRepository.findViewsByUserId(user.getId());
+
+        assertEquals(5, views.size());
+        ExpenseView lunch = views.stream().filter(v -> v.title().equals("Lunch")).findFirst().orElseThrow();
+        assertEquals(Money.of(12.5), lunch.amount());
+        assertEquals(LocalDate.of(2025, 3, 2), lunch.date());
+        assertEquals(0, entityManager.getEntityManager().unwrap(Session.class).getStatistics().getEntityCount());
+    }
+
+    @Test
+    void findFilteredPage_WalksKeysetNewestFirst() {
+        List<ExpenseView> first = expenseRepository.findFilteredPage(user.getId(), null, null, null, null, null,
+                null, null, Limit.of(2));
+        assertEquals(List.of("Dinner", "Bus"), first.stream().map(ExpenseView::title).toList());
+
+        ExpenseView last = first.get(1);
+        List<ExpenseView> second = expenseRepository.findFilteredPage(user.getId(), null, null, null, null, null,
+                last.date(), last.id(), Limit.of(10));
+        assertEquals(List.of("Lunch", "Salary", "Last month"), second.stream().map(ExpenseView::title).toList());
+
+        List<ExpenseView> food = expenseRepository.findFilteredPage(user.getId(), null, null, Category.FOOD, null, null,
+                null, null, Limit.of(10));
+        assertTrue(food.stream().allMatch(e -> e.category() == Category.FOOD));
+        assertEquals(3, food.size());
+    }
+
+    @Test
+    void computeMonthlyRollups_GroupsByMonthCategoryAndType() {
+        List<MonthlyRollupRow> rows = expenseRepository.computeMonthlyRollups(user.getId());
+
+        assertEquals(4, rows.size());
+        MonthlyRollupRow marchFood = rows.stream()
+                .filter(r -> r.month() == 3 && r.category() == Category.FOOD)
+                .findFirst()
+                .orElseThrow();
+        assertEquals(2025, marchFood.year());
+        assertEquals(4250L, marchFood.totalMinor());
+        assertEquals(2L, marchFood.count());
+    }
+
+    private void persist(String title, double amount, Category category, TransactionType type, LocalDate date) {
+        Expense expense = new Expense(title, Money.of(amount), category, type, date, null);
+        expense.setUser(user);
+        entityManager.persist(expense);
+    }
+}
@@ -0,0 +1,28 @@
+package com.example.smartspend.security;
+
+import org.junit.jupiter.api.Test;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+class JwtUtilTest {
+
+    private final JwtUtil jwtUtil = new JwtUtil();
+
+    @Test
+    void extractValidEmail_ReturnsSubjectForValidToken() {
+        String token = jwtUtil.generateToken("test@example.com");
+
+        assertEquals("test@example.com", jwtUtil.extractValidEmail(token));
+    }
+
+    @Test
+    void extractValidEmail_ReturnsNullForTamperedOrMalformedToken() {
+        String token = jwtUtil.generateToken("test@example.com");
+        String tampered = token.substring(0, token.length() - 2) + (token.endsWith("A") ? "BB" : "AA");
+
+        assertNull(jwtUtil.extractValidEmail(tampered));
+        assertNull(jwtUtil.extractValidEmail("not-a-jwt"));
+        assertFalse(jwtUtil.validateToken(""));
+    }
+}
@@ -0,0 +1,131 @@
+package com.example.smartspend.service;
+
+import java.time.YearMonth;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.argThat;
+import static org.mockito.ArgumentMatchers.eq;
+import org.mockito.InOrder;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.inOrder;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.timeout;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+
+import com.example.smartspend.entity.Category;
+import com.example.smartspend.entity.TransactionType;
+
+@ExtendWith(MockitoExtension.class)
+class BudgetAlertDispatcherTest {
+
+    private static final YearMonth PERIOD = YearMonth.of(2025, 3);
+
+    @Mock
+    private BudgetService budgetService;
+
+    @Mock
+    private PlatformTransactionManager transactionManager;
+
+    @InjectMocks
+    private BudgetAlertDispatcher dispatcher;
+
+    @BeforeEach
+    void setUp() {
+        ReflectionTestUtils.setField(dispatcher, "workerThreads", 1);
+        ReflectionTestUtils.setField(dispatcher, "queueCapacity", 10);
+        dispatcher.start();
+    }
+
+    @AfterEach
+    void tearDown() throws InterruptedException {
+        dispatcher.stop();
+    }
+
+    @Test
+    void burstOfChanges_CoalescesIntoOneRerun() throws Exception {
+        CountDownLatch started = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        doAnswer(invocation -> {
+            started.countDown();
+            release.await(5, TimeUnit.SECONDS);
+            return null;
+        }).doNothing().when(budgetService).evaluateBudgetAlert(eq(1L), eq(Category.FOOD), anyInt(), anyInt());
+
+        dispatcher.onExpenseChanged(event(TransactionType.EXPENSE));
+        assertTrue(started.await(5, TimeUnit.SECONDS));
+
+        // Arrives while the first evaluation is running
+        for (int i = 0; i < 50; i++) {
+            dispatcher.onExpenseChanged(event(TransactionType.EXPENSE));
+        }
+        release.countDown();
+
+        verify(budgetService, timeout(5000).times(2)).evaluateBudgetAlert(1L, Category.FOOD, 2025, 3);
+        Thread.sleep(100);
+        verify(budgetService, times(2)).evaluateBudgetAlert(1L, Category.FOOD, 2025, 3);
+    }
+
+    @Test
+    void incomeChanges_AreIgnored() throws Exception {
+        dispatcher.onExpenseChanged(event(TransactionType.INCOME));
+        Thread.sleep(100);
+
+        verify(budgetService, never()).evaluateBudgetAlert(eq(1L), eq(Category.FOOD), anyInt(), anyInt());
+    }
+
+    @Test
+    void saturatedQueue_RunsOnTheCallerInANewTransaction() throws Exception {
+        dispatcher.stop();
+        ReflectionTestUtils.setField(dispatcher, "queueCapacity", 1);
+        dispatcher.start();
+
+        CountDownLatch started = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        doAnswer(invocation -> {
+            started.countDown();
+            release.await(5, TimeUnit.SECONDS);
+            return null;
+        }).when(budgetService).evaluateBudgetAlert(1L, Category.FOOD, 2025, 3);
+        Thread[] ranOn = new Thread[1];
+        doAnswer(invocation -> {
+            ranOn[0] = Thread.currentThread();
+            return null;
+        }).when(budgetService).evaluateBudgetAlert(1L, Category.BILLS, 2025, 3);
+
+        // One key busy on the only worker, one waiting in the queue
+        dispatcher.onExpenseChanged(event(TransactionType.EXPENSE));
+        assertTrue(started.await(5, TimeUnit.SECONDS));
+        dispatcher.onExpenseChanged(new ExpenseChangedEvent(1L, Category.TRAVEL, TransactionType.EXPENSE, PERIOD, 1000, 1));
+
+        // Full: runs here, as it would inside the publisher's afterCommit callback
+        dispatcher.onExpenseChanged(new ExpenseChangedEvent(1L, Category.BILLS, TransactionType.EXPENSE, PERIOD, 1000, 1));
+
+        assertSame(Thread.currentThread(), ranOn[0]);
+        InOrder inOrder = inOrder(transactionManager, budgetService);
+        inOrder.verify(transactionManager).getTransaction(argThat(definition ->
+                definition.getPropagationBehavior() == TransactionDefinition.PROPAGATION_REQUIRES_NEW));
+        inOrder.verify(budgetService).evaluateBudgetAlert(1L, Category.BILLS, 2025, 3);
+        inOrder.verify(transactionManager).commit(any());
+        release.countDown();
+    }
+
+    private ExpenseChangedEvent event(TransactionType type) {
+        return new ExpenseChangedEvent(1L, Category.FOOD, type, PERIOD, 1000, 1);
+    }
+}
@@ -0,0 +1,164 @@
+package com.example.smartspend.service;
+
+import java.time.YearMonth;
+import java.util.List;
+import java.util.Optional;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyDouble;
+import static org.mockito.ArgumentMatchers.eq;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import com.example.smartspend.entity.Budget;
+import com.example.smartspend.entity.BudgetAlertState;
+import com.example.smartspend.entity.Category;
+import com.example.smartspend.entity.Money;
+import com.example.smartspend.entity.TransactionType;
+import com.example.smartspend.entity.User;
+import com.example.smartspend.repository.BudgetRepository;
+
+import io.micrometer.core.instrument.MeterRegistry;
+
+@ExtendWith(MockitoExtension.class)
+class BudgetServiceTest {
+
+    private static final Long USER_ID = 1L;
+    private static final Long BUDGET_ID = 7L;
+
+    @Mock
+    private BudgetRepository budgetRepository;
+
+    @Mock
+    private ExpenseRollupService rollupService;
+
+    @Mock
+    private UserService userService;
+
+    @Mock
+    private EmailService emailService;
+
+    @Mock
+    private BudgetPeriodCache periodCache;
+
+    @Mock
+    private DashboardService dashboardService;
+
+    @Mock
+    private DataVersionService dataVersionService;
+
+    @Mock
+    private ApplicationEventPublisher eventPublisher;
+
+    @Mock
+    private ObjectProvider<MeterRegistry> meterRegistry;
+
+    @InjectMocks
+    private BudgetService budgetService;
+
+    private User user;
+    private Budget budget;
+
+    @BeforeEach
+    void setUp() {
+        ReflectionTestUtils.setField(budgetService, "warningThreshold", 80.0);
+        ReflectionTestUtils.setField(budgetService, "exceededThreshold", 100.0);
+
+        user = new User("alerts@example.com", "password", "Alert", "User");
+        user.setId(USER_ID);
+        budget = new Budget(Category.FOOD, Money.valueOf("100"), 3, 2025);
+        budget.setId(BUDGET_ID);
+        budget.setUser(user);
+    }
+
+    @Test
+    void evaluateBudgetAlert_StaleSnapshot_UsesTheStoredState() {
+        // The cached snapshot still says WARNED; the stored state was re-armed since
+        budget.setAlertState(BudgetAlertState.WARNED);
+        spending("90");
+        when(budgetRepository.findAlertStateById(BUDGET_ID)).thenReturn(Optional.of(BudgetAlertState.NONE));
+        when(budgetRepository.transitionAlertState(BUDGET_ID, BudgetAlertState.NONE, BudgetAlertState.WARNED))
+                .thenReturn(1);
+        when(userService.findById(USER_ID)).thenReturn(user);
+
+        budgetService.evaluateBudgetAlert(USER_ID, Category.FOOD, 2025, 3);
+
+        verify(emailService).sendBudgetWarningEmail(eq("alerts@example.com"), eq(budget), anyDouble());
+    }
+
+    @Test
+    void evaluateBudgetAlert_LostTransition_RetriesOnceFromTheStoredState() {
+        spending("120");
+        when(budgetRepository.findAlertStateById(BUDGET_ID))
+                .thenReturn(Optional.of(BudgetAlertState.NONE), Optional.of(BudgetAlertState.WARNED));
+        when(budgetRepository.transitionAlertState(BUDGET_ID, BudgetAlertState.NONE, BudgetAlertState.EXCEEDED))
+                .thenReturn(0);
+        when(budgetRepository.transitionAlertState(BUDGET_ID, BudgetAlertState.WARNED, BudgetAlertState.EXCEEDED))
+                .thenReturn(1);
+        when(userService.findById(USER_ID)).thenReturn(user);
+
+        budgetService.evaluateBudgetAlert(USER_ID, Category.FOOD, 2025, 3);
+
+        verify(emailService).sendBudgetExceededEmail(eq("alerts@example.com"), eq(budget), anyDouble());
+    }
+
+    @Test
+    void evaluateBudgetAlert_ConcurrentEvaluationAlreadyAlerted_SendsNothing() {
+        spending("90");
+        when(budgetRepository.findAlertStateById(BUDGET_ID))
+                .thenReturn(Optional.of(BudgetAlertState.NONE), Optional.of(BudgetAlertState.WARNED));
+        when(budgetRepository.transitionAlertState(BUDGET_ID, BudgetAlertState.NONE, BudgetAlertState.WARNED))
+                .thenReturn(0);
+
+        budgetService.evaluateBudgetAlert(USER_ID, Category.FOOD, 2025, 3);
+
+        verify(emailService, never()).sendBudgetWarningEmail(any(), any(), anyDouble());
+        verify(eventPublisher, never()).publishEvent(any(BudgetAlertEvent.class));
+    }
+
+    @Test
+    void updateBudget_AmountChanged_ReevaluatesTheAlert() {
+        when(budgetRepository.findById(BUDGET_ID)).thenReturn(Optional.of(budget));
+        when(budgetRepository.save(budget)).thenReturn(budget);
+
+        budgetService.updateBudget(USER_ID, BUDGET_ID, new Budget(Category.FOOD, Money.valueOf("50"), 3, 2025));
+
+        verify(eventPublisher).publishEvent(new BudgetChangedEvent(USER_ID, Category.FOOD, YearMonth.of(2025, 3)));
+    }
+
+    @Test
+    void updateBudget_NothingAlertRelevantChanged_DoesNotReevaluate() {
+        when(budgetRepository.findById(BUDGET_ID)).thenReturn(Optional.of(budget));
+        when(budgetRepository.save(budget)).thenReturn(budget);
+
+        budgetService.updateBudget(USER_ID, BUDGET_ID, new Budget(Category.FOOD, Money.valueOf("100.00"), 3, 2025));
+
+        verify(eventPublisher, never()).publishEvent(any(BudgetChangedEvent.class));
+    }
+
+    @Test
+    void deleteBudget_PublishesBudgetChanged() {
+        when(budgetRepository.findById(BUDGET_ID)).thenReturn(Optional.of(budget));
+
+        budgetService.deleteBudget(USER_ID, BUDGET_ID);
+
+        verify(budgetRepository).delete(budget);
+        verify(eventPublisher).publishEvent(new BudgetChangedEvent(USER_ID, Category.FOOD, YearMonth.of(2025, 3)));
+    }
+
+    private void spending(String spent) {
+        when(periodCache.get(eq(USER_ID), eq(3), eq(2025), any())).thenReturn(List.of(budget));
+        when(rollupService.getTotal(USER_ID, Category.FOOD, TransactionType.EXPENSE, 2025, 3))
+                .thenReturn(Money.valueOf(spent));
+    }
+}
@@ -0,0 +1,124 @@
+package com.example.smartspend.service;
+
+import java.time.YearMonth;
+import java.util.List;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import static org.junit.jupiter.api.Assertions.assertDoesNotThrow;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import org.mockito.ArgumentCaptor;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoInteractions;
+import static org.mockito.Mockito.when;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.messaging.simp.SimpMessagingTemplate;
+import org.springframework.messaging.simp.user.SimpUser;
+import org.springframework.messaging.simp.user.SimpUserRegistry;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import com.example.smartspend.dto.TotalsDelta;
+import com.example.smartspend.entity.Budget;
+import com.example.smartspend.entity.Category;
+import com.example.smartspend.entity.Money;
+import com.example.smartspend.entity.TransactionType;
+
+import io.micrometer.core.instrument.MeterRegistry;
+
+@ExtendWith(MockitoExtension.class)
+class DashboardPushServiceTest {
+
+    private static final YearMonth PERIOD = YearMonth.of(2025, 3);
+
+    @Mock
+    private SimpMessagingTemplate messagingTemplate;
+
+    @Mock
+    private SimpUserRegistry userRegistry;
+
+    @Mock
+    private ExpenseRollupService rollupService;
+
+    @Mock
+    private BudgetService budgetService;
+
+    @Mock
+    private ObjectProvider<MeterRegistry> meterRegistry;
+
+    @InjectMocks
+    private DashboardPushService pushService;
+
+    @AfterEach
+    void tearDown() {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+    }
+
+    @Test
+    void changesInOneTransaction_ArePushedOnceAfterCommit() {
+        when(userRegistry.getUser("1")).thenReturn(mock(SimpUser.class));
+        when(rollupService.getTotal(1L, Category.FOOD, TransactionType.EXPENSE, 2025, 3)).thenReturn(Money.of(90));
+        when(budgetService.getBudgetsByUserIdAndMonthAndYear(1L, 3, 2025))
+                .thenReturn(List.of(new Budget(Category.FOOD, Money.of(120), 3, 2025)));
+
+        TransactionSynchronizationManager.initSynchronization();
+        pushService.onExpenseChanged(event(2500));
+        pushService.onExpenseChanged(event(1500));
+
+        List<TransactionSynchronization> synchronizations = TransactionSynchronizationManager.getSynchronizations();
+        synchronizations.forEach(synchronization -> synchronization.beforeCommit(false));
+        verify(messagingTemplate, never()).convertAndSendToUser(anyString(), anyString(), any());
+
+        synchronizations.forEach(TransactionSynchronization::afterCommit);
+        synchronizations.forEach(synchronization -> synchronization.afterCompletion(TransactionSynchronization.STATUS_COMMITTED));
+
+        @SuppressWarnings("unchecked")
+        ArgumentCaptor<List<TotalsDelta>> payload = ArgumentCaptor.forClass(List.class);
+        verify(messagingTemplate).convertAndSendToUser(eq("1"), eq(DashboardPushService.TOTALS_QUEUE), payload.capture());
+        assertEquals(List.of(new TotalsDelta("2025-03", Category.FOOD, TransactionType.EXPENSE,
+                Money.of(40), 2, Money.of(90), Money.of(120), 75.0)), payload.getValue());
+    }
+
+    @Test
+    void failedResolve_SkipsThePushWithoutFailingTheCommit() {
+        when(userRegistry.getUser("1")).thenReturn(mock(SimpUser.class));
+        when(rollupService.getTotal(1L, Category.FOOD, TransactionType.EXPENSE, 2025, 3))
+                .thenThrow(new IllegalStateException("rollup unavailable"));
+
+        TransactionSynchronizationManager.initSynchronization();
+        pushService.onExpenseChanged(event(2500));
+
+        List<TransactionSynchronization> synchronizations = TransactionSynchronizationManager.getSynchronizations();
+        assertDoesNotThrow(() -> synchronizations.forEach(synchronization -> synchronization.beforeCommit(false)));
+        synchronizations.forEach(TransactionSynchronization::afterCommit);
+        synchronizations.forEach(synchronization -> synchronization.afterCompletion(TransactionSynchronization.STATUS_COMMITTED));
+
+        verifyNoInteractions(messagingTemplate);
+    }
+
+    @Test
+    void userWithoutSession_CostsNoQueries() {
+        TransactionSynchronizationManager.initSynchronization();
+        pushService.onExpenseChanged(event(2500));
+
+        assertEquals(List.of(), TransactionSynchronizationManager.getSynchronizations());
+        verify(rollupService, never()).getTotal(any(), any(), any(), anyInt(), anyInt());
+        verifyNoInteractions(messagingTemplate);
+    }
+
+    private ExpenseChangedEvent event(long amountMinor) {
+        return new ExpenseChangedEvent(1L, Category.FOOD, TransactionType.EXPENSE, PERIOD, amountMinor, 1);
+    }
+}
@@ -0,0 +1,144 @@
+package com.example.smartspend.service;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.stream.LongStream;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.junit.jupiter.api.extension.RegisterExtension;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.ArgumentMatchers.isNull;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.domain.Limit;
+import org.springframework.mail.javamail.JavaMailSenderImpl;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import com.example.smartspend.entity.EmailOutboxMessage;
+import com.example.smartspend.entity.EmailStatus;
+import com.example.smartspend.repository.EmailOutboxRepository;
+import com.icegreen.greenmail.junit5.GreenMailExtension;
+import com.icegreen.greenmail.util.ServerSetupTest;
+
+import jakarta.mail.internet.MimeMessage;
+
+@ExtendWith(MockitoExtension.class)
+class EmailDispatcherTest {
+
+    @RegisterExtension
+    static GreenMailExtension greenMail = new GreenMailExtension(ServerSetupTest.SMTP);
+
+    @Mock
+    private EmailOutboxRepository outboxRepository;
+
+    @Mock
+    private PlatformTransactionManager transactionManager;
+
+    @InjectMocks
+    private EmailDispatcher dispatcher;
+
+    private JavaMailSenderImpl mailSender;
+
+    @BeforeEach
+    void setUp() {
+        mailSender = new JavaMailSenderImpl();
+        mailSender.setHost("localhost");
+        mailSender.setPort(greenMail.getSmtp().getPort());
+
+        ReflectionTestUtils.setField(dispatcher, "mailSender", mailSender);
+        ReflectionTestUtils.setField(dispatcher, "batchSize", 50);
+        ReflectionTestUtils.setField(dispatcher, "maxAttempts", 3);
+        ReflectionTestUtils.setField(dispatcher, "retryBaseDelayMs", 1000L);
+        ReflectionTestUtils.setField(dispatcher, "retryMaxDelayMs", 60000L);
+        ReflectionTestUtils.setField(dispatcher, "leaseMs", 300000L);
+        ReflectionTestUtils.setField(dispatcher, "sentRetentionDays", 30);
+    }
+
+    @Test
+    void drainBatch_SendsWholeBatchAndMarksSent() throws Exception {
+        List<EmailOutboxMessage> batch = List.of(
+                message("a@example.com"), message("b@example.com"), message("c@example.com"));
+        when(outboxRepository.lockDueBatch(any(LocalDateTime.class), any(Limit.class))).thenReturn(batch);
+
+        assertEquals(3, dispatcher.drainBatch());
+
+        MimeMessage[] received = greenMail.getReceivedMessages();
+        assertEquals(3, received.length);
+        assertEquals("Budget Warning - FOOD", received[0].getSubject());
+        for (EmailOutboxMessage outboxMessage : batch) {
+            assertEquals(EmailStatus.SENT, outboxMessage.getStatus());
+            assertEquals(1, outboxMessage.getAttempts());
+            assertNotNull(outboxMessage.getSentAt());
+        }
+        assertEquals(3, dispatcher.getSentCount());
+        // Written back in a second transaction, only while the claim's lease still holds
+        verify(outboxRepository, times(3)).recordAttempt(any(), any(LocalDateTime.class),
+                eq(EmailStatus.SENT), any(LocalDateTime.class), isNull(), any(LocalDateTime.class));
+    }
+
+    @Test
+    void drainBatch_LeaseExpiredOnFinalAttempt_FailsWithoutSending() {
+        EmailOutboxMessage outboxMessage = message("stuck@example.com");
+        outboxMessage.setStatus(EmailStatus.IN_PROGRESS);
+        outboxMessage.setAttempts(3);
+        when(outboxRepository.lockDueBatch(any(LocalDateTime.class), any(Limit.class)))
+                .thenReturn(List.of(outboxMessage));
+
+        assertEquals(0, dispatcher.drainBatch());
+        assertEquals(EmailStatus.FAILED, outboxMessage.getStatus());
+        assertEquals(0, greenMail.getReceivedMessages().length);
+        verify(outboxRepository, never()).recordAttempt(any(), any(), any(), any(), any(), any());
+    }
+
+    @Test
+    void purgeSent_DeletesInBatchesUntilNoneAreLeft() {
+        List<Long> fullBatch = LongStream.range(0, 1000).boxed().toList();
+        when(outboxRepository.findSentBefore(any(LocalDateTime.class), any(Limit.class)))
+                .thenReturn(fullBatch, List.of(1000L, 1001L));
+
+        dispatcher.purgeSent();
+
+        verify(outboxRepository).deleteAllByIdInBatch(fullBatch);
+        verify(outboxRepository).deleteAllByIdInBatch(List.of(1000L, 1001L));
+        verify(outboxRepository, times(2)).findSentBefore(any(LocalDateTime.class), any(Limit.class));
+    }
+
+    @Test
+    void drainBatch_ServerDown_BacksOffThenGivesUp() {
+        mailSender.setPort(1);
+        EmailOutboxMessage outboxMessage = message("down@example.com");
+        when(outboxRepository.lockDueBatch(any(LocalDateTime.class), any(Limit.class)))
+                .thenReturn(List.of(outboxMessage));
+
+        assertEquals(0, dispatcher.drainBatch());
+        assertEquals(EmailStatus.PENDING, outboxMessage.getStatus());
+        assertEquals(1, outboxMessage.getAttempts());
+        assertNotNull(outboxMessage.getLastError());
+        LocalDateTime firstRetry = outboxMessage.getNextAttemptAt();
+        assertTrue(firstRetry.isAfter(LocalDateTime.now()));
+
+        dispatcher.drainBatch();
+        assertTrue(outboxMessage.getNextAttemptAt().isAfter(firstRetry.plusNanos(500_000_000L)));
+
+        dispatcher.drainBatch();
+        assertEquals(EmailStatus.FAILED, outboxMessage.getStatus());
+        assertEquals(3, outboxMessage.getAttempts());
+        assertEquals(1, dispatcher.getFailedCount());
+    }
+
+    private EmailOutboxMessage message(String recipient) {
+        return new EmailOutboxMessage(recipient, "Budget Warning - FOOD", "<p>80% of your FOOD budget used</p>");
+    }
+}
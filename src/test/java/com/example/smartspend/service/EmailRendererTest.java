@@ -0,0 +1,52 @@
+package com.example.smartspend.service;
+
+import java.util.List;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import com.example.smartspend.entity.Category;
+import com.example.smartspend.entity.Money;
+
+class EmailRendererTest {
+
+    private EmailRenderer renderer;
+
+    @BeforeEach
+    void setUp() {
+        renderer = new EmailRenderer();
+        renderer.warmUp();
+    }
+
+    @Test
+    void monthlySummary_RendersPreformattedValues() {
+        String html = renderer.renderMonthlySummary(3, 2025, Money.of(5000), Money.of(1234.5),
+                List.of(new EmailService.BudgetStatus(Category.FOOD, Money.of(400), Money.of(450), 112.5)),
+                List.of(new EmailService.CategorySpending("FOOD", Money.of(450), 36.45)));
+
+        assertTrue(html.contains("March 2025"));
+        assertTrue(html.contains("$5,000.00"));
+        assertTrue(html.contains("$3,765.50"));
+        assertTrue(html.contains("$450.00 / $400.00"));
+        assertTrue(html.contains("112.5%"));
+        assertTrue(html.contains("36.5%"));
+        assertTrue(html.contains("1</span> budget(s) exceeded"));
+    }
+
+    @Test
+    void budgetWarning_RendersCategoryAndUtilization() {
+        String html = renderer.renderBudgetWarning(Category.TRANSPORTATION, Money.of(1200), 85.0);
+
+        assertTrue(html.contains("TRANSPORTATION"));
+        assertTrue(html.contains("85.0%"));
+        assertTrue(html.contains("$1,200.00"));
+    }
+
+    @Test
+    void formatters_AreLocaleIndependent() {
+        assertEquals("1,234,567.89", renderer.formatAmount(Money.ofMinor(123456789)));
+        assertEquals("80.0", renderer.formatPercent(79.96));
+    }
+}
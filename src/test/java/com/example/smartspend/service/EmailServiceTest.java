@@ -0,0 +1,64 @@
+package com.example.smartspend.service;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoInteractions;
+import static org.mockito.Mockito.when;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import com.example.smartspend.entity.EmailOutboxMessage;
+import com.example.smartspend.repository.EmailOutboxRepository;
+
+import io.micrometer.core.instrument.MeterRegistry;
+
+@ExtendWith(MockitoExtension.class)
+class EmailServiceTest {
+
+    @Mock
+    private EmailOutboxRepository outboxRepository;
+
+    @Mock
+    private EmailRenderer emailRenderer;
+
+    @Mock
+    private ObjectProvider<MeterRegistry> meterRegistry;
+
+    @InjectMocks
+    private EmailService emailService;
+
+    @BeforeEach
+    void setUp() {
+        ReflectionTestUtils.setField(emailService, "emailEnabled", true);
+        ReflectionTestUtils.setField(emailService, "baseUrl", "http://localhost:8082");
+    }
+
+    @Test
+    void renderFailure_IsLoggedAndNothingIsQueued() {
+        when(emailRenderer.renderVerification(anyString())).thenThrow(new IllegalStateException("template missing"));
+
+        emailService.sendVerificationEmail("user@example.com", "token");
+
+        verifyNoInteractions(outboxRepository);
+        verify(meterRegistry).ifAvailable(any());
+    }
+
+    @Test
+    void outboxFailure_PropagatesToTheCallersTransaction() {
+        when(emailRenderer.renderVerification(anyString())).thenReturn("<p>verify</p>");
+        when(outboxRepository.save(any(EmailOutboxMessage.class)))
+                .thenThrow(new DataIntegrityViolationException("outbox insert failed"));
+
+        assertThrows(DataIntegrityViolationException.class,
+                () -> emailService.sendVerificationEmail("user@example.com", "token"));
+    }
+}
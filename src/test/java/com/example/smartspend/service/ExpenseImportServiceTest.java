@@ -0,0 +1,175 @@
+package com.example.smartspend.service;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.StringReader;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import org.mockito.ArgumentCaptor;
+import static org.mockito.ArgumentMatchers.any;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoMoreInteractions;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import com.example.smartspend.dto.ExpenseImportResult;
+import com.example.smartspend.dto.ImportRowError;
+import com.example.smartspend.entity.Category;
+import com.example.smartspend.entity.Expense;
+import com.example.smartspend.entity.TransactionType;
+import com.example.smartspend.entity.User;
+import com.fasterxml.jackson.databind.json.JsonMapper;
+
+import jakarta.persistence.EntityManager;
+import jakarta.validation.Validation;
+
+@ExtendWith(MockitoExtension.class)
+class ExpenseImportServiceTest {
+
+    private static final Long USER_ID = 1L;
+    private static final String HEADER = "date,title,amount,category,type,description\n";
+
+    @Mock
+    private UserService userService;
+
+    @Mock
+    private ExpenseRollupService rollupService;
+
+    @Mock
+    private DataVersionService dataVersionService;
+
+    @Mock
+    private EntityManager entityManager;
+
+    @InjectMocks
+    private ExpenseImportService importService;
+
+    @BeforeEach
+    void setUp() {
+        ReflectionTestUtils.setField(importService, "objectMapper", JsonMapper.builder().findAndAddModules().build());
+        ReflectionTestUtils.setField(importService, "validator",
+                Validation.buildDefaultValidatorFactory().getValidator());
+        ReflectionTestUtils.setField(importService, "batchSize", 2);
+    }
+
+    @Test
+    void importCsv_FlushesAndClearsEveryBatch() throws IOException {
+        ExpenseImportResult result = importService.importCsv(USER_ID, csv(
+                "2025-03-01,Coffee,3.50,FOOD,EXPENSE,\n".repeat(5)));
+
+        assertEquals(5, result.imported());
+        verify(entityManager, times(5)).persist(any(Expense.class));
+        // After rows 2 and 4, then once more in finish()
+        verify(entityManager, times(3)).flush();
+        verify(entityManager, times(3)).clear();
+        // The user reference is taken again after each clear
+        verify(entityManager, times(3)).getReference(User.class, USER_ID);
+    }
+
+    @Test
+    void importCsv_AppliesRollupDeltasOncePerKey() throws IOException {
+        importService.importCsv(USER_ID, csv(
+                "2025-03-01,Lunch,12.50,FOOD,EXPENSE,\n"
+                + "2025-03-20,Dinner,7.25,FOOD,EXPENSE,\n"
+                + "2025-04-02,Snack,3.00,FOOD,EXPENSE,\n"
+                + "2025-03-31,Salary,1000,OTHER,INCOME,\n"
+                + "2025-03-05,Breakfast,4.00,food,expense,\n"));
+
+        verify(rollupService).apply(USER_ID, LocalDate.of(2025, 3, 1), Category.FOOD, TransactionType.EXPENSE, 2375L, 3L);
+        verify(rollupService).apply(USER_ID, LocalDate.of(2025, 4, 1), Category.FOOD, TransactionType.EXPENSE, 300L, 1L);
+        verify(rollupService).apply(USER_ID, LocalDate.of(2025, 3, 1), Category.OTHER, TransactionType.INCOME, 100000L, 1L);
+        verifyNoMoreInteractions(rollupService);
+        verify(dataVersionService).bump(USER_ID);
+    }
+
+    @Test
+    void importCsv_RejectsBadRowsAndTruncatesTheErrorReport() throws IOException {
+        StringBuilder rows = new StringBuilder("2025-03-01,,3.50,FOOD,EXPENSE,\n");
+        rows.append("2025-03-01,Valid,3.50,FOOD,EXPENSE,\n");
+        rows.append("2025-03-01,Typo,3.50,NOPE,EXPENSE,\n".repeat(ExpenseImportService.MAX_REPORTED_ERRORS + 4));
+
+        ExpenseImportResult result = importService.importCsv(USER_ID, csv(rows.toString()));
+
+        assertEquals(ExpenseImportService.MAX_REPORTED_ERRORS + 6, result.totalRows());
+        assertEquals(1, result.imported());
+        assertEquals(ExpenseImportService.MAX_REPORTED_ERRORS + 5, result.rejected());
+        assertEquals(ExpenseImportService.MAX_REPORTED_ERRORS, result.errors().size());
+        assertTrue(result.errorsTruncated());
+        assertEquals(2, result.errors().get(0).row());
+        assertTrue(result.errors().get(0).message().startsWith("title "));
+        assertEquals(new ImportRowError(4, "Invalid category: NOPE"), result.errors().get(1));
+    }
+
+    @Test
+    void importJson_BadElementInTheMiddle_RejectsOnlyThatElement() throws IOException {
+        String json = "["
+                + "{\"title\":\"Lunch\",\"amount\":12.50,\"category\":\"FOOD\",\"type\":\"EXPENSE\",\"date\":\"2025-03-01\"},"
+                + "\"not an expense\","
+                + "{\"title\":\"Typo\",\"amount\":1,\"category\":\"NOPE\",\"type\":\"EXPENSE\",\"date\":\"2025-03-01\"},"
+                + "{\"title\":\"Taxi\",\"amount\":\"8.40\",\"category\":\"TRANSPORTATION\",\"type\":\"EXPENSE\",\"date\":\"2025-03-02\"}"
+                + "]";
+
+        ExpenseImportResult result = importService.importJson(USER_ID,
+                new ByteArrayInputStream(json.getBytes(StandardCharsets.UTF_8)));
+
+        assertEquals(4, result.totalRows());
+        assertEquals(2, result.imported());
+        assertEquals(2, result.rejected());
+        assertFalse(result.errorsTruncated());
+        assertEquals(new ImportRowError(2, "Expected an expense object"), result.errors().get(0));
+        assertEquals(3, result.errors().get(1).row());
+        assertTrue(result.errors().get(1).message().startsWith("Invalid value"));
+        verify(entityManager, times(2)).persist(any(Expense.class));
+    }
+
+    @Test
+    void importCsv_QuotedFieldsMaySpanLines() throws IOException {
+        ExpenseImportResult result = importService.importCsv(USER_ID, csv(
+                "2025-03-01,Rent,900,RENT,EXPENSE,\"March, paid late\r\nsaid \"\"sorry\"\"\nto landlord\"\r\n"
+                + "2025-03-02,Typo,1,NOPE,EXPENSE,\n"));
+
+        ArgumentCaptor<Expense> persisted = ArgumentCaptor.forClass(Expense.class);
+        verify(entityManager).persist(persisted.capture());
+        assertEquals("March, paid late\r\nsaid \"sorry\"\nto landlord", persisted.getValue().getDescription());
+        // The bad row starts on physical line 5: header, then three lines of the first record
+        assertEquals(List.of(new ImportRowError(5, "Invalid category: NOPE")), result.errors());
+    }
+
+    @Test
+    void csvReader_HandlesQuotedCommasAndEscapedQuotes() throws IOException {
+        assertEquals(List.of(List.of("2025-03-01", "Card payment, ref 7", "12.50", "FOOD", "EXPENSE", "said \"hi\"")),
+                readCsv("2025-03-01,\"Card payment, ref 7\",12.50,FOOD,EXPENSE,\"said \"\"hi\"\"\""));
+    }
+
+    @Test
+    void csvReader_KeepsTrailingEmptyField() throws IOException {
+        assertEquals(List.of(List.of("2025-03-01", "Salary", "1000", "OTHER", "INCOME", "")),
+                readCsv("2025-03-01,Salary,1000,OTHER,INCOME,\r\n"));
+    }
+
+    private ByteArrayInputStream csv(String rows) {
+        return new ByteArrayInputStream((HEADER + rows).getBytes(StandardCharsets.UTF_8));
+    }
+
+    private List<List<String>> readCsv(String text) throws IOException {
+        ExpenseImportService.CsvReader reader = new ExpenseImportService.CsvReader(new StringReader(text));
+        List<List<String>> records = new ArrayList<>();
+        List<String> record;
+        while ((record = reader.readRecord()) != null) {
+            records.add(record);
+        }
+        return records;
+    }
+}